@@ -0,0 +1,88 @@
+package com.currencyApp.benchmarks;
+
+import com.currencyApp.model.Currency;
+import com.currencyApp.ui.CurrencySearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type-ahead search of the currency combo boxes over the generated /currencies list,
+ * both for a fresh prefix and for cycling through the matches of a common one:
+ * the original linear scan against the CurrencySearchIndex
+ * <pre>mvn -Pbenchmarks compile exec:exec -Djmh.args="ComboBoxSearchBenchmark -prof gc"</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComboBoxSearchBenchmark {
+    private static final String[] PREFIXES = {"E", "EU", "US", "MOR", "S", "SAU", "C", "CHI", "Z", "Q"};
+
+    private List<Currency> items;
+    private CurrencySearchIndex index;
+    private final StringBuilder typed = new StringBuilder();
+    private int lastMatchIndex = -1;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        items = Currency.CURRENCY_LIST_DECODER.decode(
+                PayloadFixtures.stream(PayloadFixtures.load(PayloadFixtures.CURRENCIES)));
+        items.sort(Comparator.comparing(Currency::getName)); // display order
+        index = new CurrencySearchIndex(items);
+    }
+
+    @Benchmark
+    public int firstMatchLinearScan() {
+        return linearScan(items, PREFIXES[next++ % PREFIXES.length], -1);
+    }
+
+    @Benchmark
+    public int firstMatchIndexed() {
+        // What the key handler does: the typed text sits in a reused StringBuilder
+        typed.setLength(0);
+        typed.append(PREFIXES[next++ % PREFIXES.length]);
+        return index.findNextMatch(typed, -1);
+    }
+
+    @Benchmark
+    public int cycleMatchesLinearScan() {
+        lastMatchIndex = linearScan(items, "S", lastMatchIndex);
+        return lastMatchIndex;
+    }
+
+    @Benchmark
+    public int cycleMatchesIndexed() {
+        lastMatchIndex = index.findNextMatch("S", lastMatchIndex);
+        return lastMatchIndex;
+    }
+
+    /** The search ComboBoxElement used before the index: a scan with upper-casing and a list of matches */
+    private static int linearScan(List<Currency> items, String prefix, int lastMatchIndex) {
+        String upperPrefix = prefix.toUpperCase();
+        List<Currency> matchingItems = new ArrayList<>();
+        for (Currency currency : items) {
+            if (currency.getName().toUpperCase().startsWith(upperPrefix)) {
+                matchingItems.add(currency);
+            }
+        }
+        if (matchingItems.isEmpty()) {
+            return -1;
+        }
+        int nextIndex = 0;
+        if (lastMatchIndex != -1) {
+            int currentMatchPos = matchingItems.indexOf(items.get(lastMatchIndex));
+            if (currentMatchPos != -1) {
+                nextIndex = (currentMatchPos + 1) % matchingItems.size();
+            }
+        }
+        return items.indexOf(matchingItems.get(nextIndex));
+    }
+}
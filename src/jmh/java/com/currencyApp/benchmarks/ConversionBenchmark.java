@@ -0,0 +1,49 @@
+package com.currencyApp.benchmarks;
+
+import com.currencyApp.model.CrossRateMatrix;
+import com.currencyApp.model.Currency;
+import com.currencyApp.model.RateTable;
+import com.currencyApp.util.CurrencyFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What calculateAndDisplay does on every keystroke: parse the amount, look up the pair and
+ * format the result, over the rates of a generated /fetch-all response
+ * <pre>mvn -Pbenchmarks compile exec:exec -Djmh.args="ConversionBenchmark -prof gc"</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConversionBenchmark {
+    private static final String[] AMOUNTS = {"1", "12", "125", "1250.5", "99.99", "100000"};
+
+    private CrossRateMatrix crossRates;
+    private String[] codes;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        RateTable table = Currency.RATE_TABLE_DECODER.decode(
+                PayloadFixtures.stream(PayloadFixtures.load(PayloadFixtures.FETCH_ALL)));
+        crossRates = new CrossRateMatrix(table);
+        codes = new String[table.size()];
+        for (int id = 0; id < codes.length; id++) {
+            codes[id] = table.getCode(id);
+        }
+    }
+
+    @Benchmark
+    public String convertAndFormat() {
+        int i = next++;
+        String from = codes[i % codes.length];
+        String to = codes[(i * 7 + 3) % codes.length];
+        double amount = Double.parseDouble(AMOUNTS[i % AMOUNTS.length]);
+        return CurrencyFormatter.formatConversionRate(amount * crossRates.getRate(from, to));
+    }
+}
@@ -0,0 +1,59 @@
+package com.currencyApp.benchmarks;
+
+import com.currencyApp.util.CurrencyFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares String.format with the CurrencyFormatter fast path, both producing a String
+ * and appending into a reused StringBuilder (what the chart tooltips do).
+ * <pre>mvn -Pbenchmarks compile exec:exec -Djmh.args="CurrencyFormatterBenchmark -prof gc"</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CurrencyFormatterBenchmark {
+    private final double[] values = new double[1024];
+    private final StringBuilder builder = new StringBuilder(32);
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Conversion results and rates: a few units to a few hundred thousand
+        Random random = new Random(42);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.pow(10, random.nextInt(6) - 1) * random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format("%.4f", values[next++ & 1023]);
+    }
+
+    @Benchmark
+    public String formatConversionRate() {
+        return CurrencyFormatter.formatConversionRate(values[next++ & 1023]);
+    }
+
+    @Benchmark
+    public String stringFormatPercentage() {
+        return String.format("%.2f%%", values[next++ & 1023]);
+    }
+
+    @Benchmark
+    public String formatPercentageChange() {
+        return CurrencyFormatter.formatPercentageChange(values[next++ & 1023]);
+    }
+
+    @Benchmark
+    public int appendFixed() {
+        builder.setLength(0);
+        return CurrencyFormatter.appendFixed(builder, values[next++ & 1023], 4).length();
+    }
+}
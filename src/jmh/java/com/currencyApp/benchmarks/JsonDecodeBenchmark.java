@@ -0,0 +1,145 @@
+package com.currencyApp.benchmarks;
+
+import com.currencyApp.model.Currency;
+import com.currencyApp.model.RateTable;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old response pipeline (body -> String -> JsonObject tree -> collections)
+ * with the streaming decoders that fill the collections straight from the byte stream.
+ * Run with the GC profiler (the default of the benchmarks profile) and compare
+ * gc.alloc.rate.norm to see the allocation per response:
+ * <pre>mvn -Pbenchmarks compile exec:exec -Djmh.args="JsonDecodeBenchmark -prof gc"</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonDecodeBenchmark {
+    private static final Gson gson = new Gson();
+
+    /** Number of days in the /time-series payload */
+    @Param({"14", "365"})
+    public int days;
+
+    private byte[] fetchAllPayload;
+    private byte[] timeSeriesPayload;
+
+    @Setup
+    public void setUp() {
+        fetchAllPayload = Payloads.fetchAll(160).getBytes(StandardCharsets.UTF_8);
+        timeSeriesPayload = Payloads.timeSeries(List.of("EUR", "CNY", "USD", "SAR"), days).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Currency> fetchAllTreeModel() throws IOException {
+        JsonObject json = gson.fromJson(readLines(fetchAllPayload), JsonObject.class);
+        List<Currency> currencyList = new ArrayList<>();
+        for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject("results").entrySet()) {
+            Currency currency = new Currency(entry.getKey(), "");
+            currency.setRate(Double.parseDouble(entry.getValue().getAsString()));
+            currencyList.add(currency);
+        }
+        return currencyList;
+    }
+
+    @Benchmark
+    public RateTable fetchAllStreaming() throws IOException {
+        return Currency.RATE_TABLE_DECODER.decode(stream(fetchAllPayload));
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Object>> timeSeriesTreeModel() throws IOException {
+        JsonObject json = gson.fromJson(readLines(timeSeriesPayload), JsonObject.class);
+        Map<String, Map<String, Object>> result = new HashMap<>();
+        for (Map.Entry<String, JsonElement> currencyEntry : json.getAsJsonObject("results").entrySet()) {
+            Map<String, Object> dateRateMap = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> rateEntry : currencyEntry.getValue().getAsJsonObject().entrySet()) {
+                dateRateMap.put(rateEntry.getKey(), rateEntry.getValue().getAsDouble());
+            }
+            result.put(currencyEntry.getKey(), dateRateMap);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Double>> timeSeriesStreaming() throws IOException {
+        return Currency.TIME_SERIES_DECODER.decode(stream(timeSeriesPayload));
+    }
+
+    private static Reader stream(byte[] payload) {
+        return new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8);
+    }
+
+    /** What the old HttpURLConnection path did with every body */
+    private static String readLines(byte[] payload) throws IOException {
+        BufferedReader br = new BufferedReader(stream(payload));
+        StringBuilder sb = new StringBuilder();
+        String output;
+        while ((output = br.readLine()) != null) {
+            sb.append(output);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Generates FastForex-shaped payloads with deterministic values
+     */
+    static final class Payloads {
+        private Payloads() {
+        }
+
+        static String fetchAll(int currencies) {
+            Random random = new Random(42);
+            StringBuilder sb = new StringBuilder("{\"base\":\"MAD\",\"results\":{");
+            for (int i = 0; i < currencies; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append('"').append(code(i)).append("\":").append(random.nextDouble() * 100);
+            }
+            return sb.append("},\"updated\":\"2025-05-01 12:00:00\",\"ms\":4}").toString();
+        }
+
+        static String timeSeries(List<String> targets, int days) {
+            Random random = new Random(42);
+            LocalDate end = LocalDate.of(2025, 5, 1);
+            LocalDate start = end.minusDays(days - 1);
+            StringBuilder sb = new StringBuilder("{\"base\":\"MAD\",\"start\":\"").append(start)
+                    .append("\",\"end\":\"").append(end).append("\",\"interval\":\"P1D\",\"results\":{");
+            for (int t = 0; t < targets.size(); t++) {
+                if (t > 0) {
+                    sb.append(',');
+                }
+                sb.append('"').append(targets.get(t)).append("\":{");
+                for (int d = 0; d < days; d++) {
+                    if (d > 0) {
+                        sb.append(',');
+                    }
+                    sb.append('"').append(start.plusDays(d)).append("\":").append(0.1 + random.nextDouble() / 100);
+                }
+                sb.append('}');
+            }
+            return sb.append("},\"ms\":7}").toString();
+        }
+
+        private static String code(int i) {
+            return new String(new char[]{(char) ('A' + i / 26 % 26), (char) ('A' + i % 26), (char) ('A' + i / 676)});
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.currencyApp.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Generated response bodies kept under src/jmh/resources/payloads, in the JSON shapes of the
+ * FastForex endpoints. They are fixtures, not captured responses: the currency codes and the size
+ * of each body are realistic, but the rates are synthetic and not meant to be plausible against MAD,
+ * so they only exercise the decoders and the code built on them.
+ */
+final class PayloadFixtures {
+    static final String CURRENCIES = "currencies.json";
+    static final String FETCH_ALL = "fetch-all.json";
+    static final String HISTORICAL = "historical.json";
+    static final String TIME_SERIES = "time-series.json";
+
+    private PayloadFixtures() {
+    }
+
+    static byte[] load(String name) {
+        try (InputStream in = PayloadFixtures.class.getResourceAsStream("/payloads/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing payload " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Reader stream(byte[] payload) {
+        return new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,55 @@
+package com.currencyApp.benchmarks;
+
+import com.currencyApp.model.Currency;
+import com.currencyApp.model.RateTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each of the Currency decoders over a generated FastForex response body
+ * <pre>mvn -Pbenchmarks compile exec:exec -Djmh.args="PayloadParsingBenchmark -prof gc"</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadParsingBenchmark {
+    private byte[] currencies;
+    private byte[] fetchAll;
+    private byte[] historical;
+    private byte[] timeSeries;
+
+    @Setup
+    public void setUp() {
+        currencies = PayloadFixtures.load(PayloadFixtures.CURRENCIES);
+        fetchAll = PayloadFixtures.load(PayloadFixtures.FETCH_ALL);
+        historical = PayloadFixtures.load(PayloadFixtures.HISTORICAL);
+        timeSeries = PayloadFixtures.load(PayloadFixtures.TIME_SERIES);
+    }
+
+    @Benchmark
+    public List<Currency> currencies() throws IOException {
+        return Currency.CURRENCY_LIST_DECODER.decode(PayloadFixtures.stream(currencies));
+    }
+
+    @Benchmark
+    public RateTable fetchAll() throws IOException {
+        return Currency.RATE_TABLE_DECODER.decode(PayloadFixtures.stream(fetchAll));
+    }
+
+    @Benchmark
+    public Map<String, Double> historical() throws IOException {
+        return Currency.HISTORICAL_DECODER.decode(PayloadFixtures.stream(historical));
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Double>> timeSeries() throws IOException {
+        return Currency.TIME_SERIES_DECODER.decode(PayloadFixtures.stream(timeSeries));
+    }
+}
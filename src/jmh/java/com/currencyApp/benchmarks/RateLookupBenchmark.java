@@ -0,0 +1,101 @@
+package com.currencyApp.benchmarks;
+
+import com.currencyApp.model.CrossRateMatrix;
+import com.currencyApp.model.Currency;
+import com.currencyApp.model.RateTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares looking up a rate by scanning a List&lt;Currency&gt; (what the converter used to do
+ * on every keystroke) with the id-indexed RateTable, both by code and by a pre-resolved id,
+ * and deriving a cross rate from two scans with reading it from the CrossRateMatrix.
+ * <pre>mvn -Pbenchmarks compile exec:exec -Djmh.args="RateLookupBenchmark -prof gc"</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLookupBenchmark {
+    /** Number of currencies in the table; /fetch-all returns about 160 */
+    @Param({"160"})
+    public int currencies;
+
+    private List<Currency> currencyList;
+    private RateTable rateTable;
+    private CrossRateMatrix crossRates;
+    private String[] lookups;
+    private int[] lookupIds;
+    private int[] toIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        currencyList = new ArrayList<>(currencies);
+        RateTable.Builder builder = new RateTable.Builder();
+        for (int i = 0; i < currencies; i++) {
+            String code = new String(new char[]{(char) ('A' + i / 26 % 26), (char) ('A' + i % 26), (char) ('A' + i / 676)});
+            double rate = random.nextDouble() * 100;
+            Currency currency = new Currency(code, "");
+            currency.setRate(rate);
+            currencyList.add(currency);
+            builder.put(code, rate);
+        }
+        rateTable = builder.build("MAD");
+        crossRates = new CrossRateMatrix(rateTable);
+
+        // Fresh String instances, as they would come from the combo boxes
+        lookups = new String[1024];
+        lookupIds = new int[lookups.length];
+        toIds = new int[lookups.length];
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = new String(currencyList.get(random.nextInt(currencies)).getCode());
+            lookupIds[i] = rateTable.indexOf(lookups[i]);
+            toIds[i] = random.nextInt(currencies);
+        }
+    }
+
+    @Benchmark
+    public double listScan() {
+        return scan(lookups[next++ & 1023]);
+    }
+
+    @Benchmark
+    public double tableByCode() {
+        return rateTable.getRate(lookups[next++ & 1023]);
+    }
+
+    @Benchmark
+    public double tableById() {
+        return rateTable.getRate(lookupIds[next++ & 1023]);
+    }
+
+    /** Cross rate the old way: two scans and a division */
+    @Benchmark
+    public double crossRateListScan() {
+        int i = next++ & 1023;
+        return scan(rateTable.getCode(toIds[i])) / scan(lookups[i]);
+    }
+
+    @Benchmark
+    public double crossRateMatrix() {
+        int i = next++ & 1023;
+        return crossRates.getRate(lookupIds[i], toIds[i]);
+    }
+
+    private double scan(String code) {
+        for (Currency currency : currencyList) {
+            if (currency.getCode().equals(code)) {
+                return currency.getRate();
+            }
+        }
+        throw new IllegalArgumentException("Rate not found for " + code);
+    }
+}
@@ -0,0 +1,62 @@
+package com.currencyApp.benchmarks;
+
+import com.currencyApp.model.Currency;
+import com.currencyApp.model.RateHistory;
+import com.currencyApp.model.RateSeries;
+import com.currencyApp.ui.StatisticPreview;
+import javafx.scene.chart.XYChart;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates the 14-day trend chart's points from a generated /time-series response, the way
+ * StatisticPreview.setHistory does, without the chart itself so it runs without the FX toolkit
+ * <pre>mvn -Pbenchmarks compile exec:exec -Djmh.args="StatisticSeriesBenchmark -prof gc"</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatisticSeriesBenchmark {
+    private static final List<String> CURRENCIES = List.of("EUR", "CNY", "USD", "SAR");
+
+    private RateHistory history;
+    private final List<XYChart.Series<String, Number>> chartSeries = new ArrayList<>(CURRENCIES.size());
+    // Alternates between two windows a day apart, so every redraw has values to change
+    private int shift;
+
+    @Setup
+    public void setUp() throws IOException {
+        Map<String, Map<String, Double>> series = Currency.TIME_SERIES_DECODER.decode(
+                PayloadFixtures.stream(PayloadFixtures.load(PayloadFixtures.TIME_SERIES)));
+        history = new RateHistory();
+        for (Map.Entry<String, Map<String, Double>> currency : series.entrySet()) {
+            history.merge(RateSeries.of("MAD", currency.getKey(), currency.getValue()));
+        }
+        for (String currency : CURRENCIES) {
+            XYChart.Series<String, Number> chart = new XYChart.Series<>();
+            chart.setName(currency);
+            chartSeries.add(chart);
+        }
+    }
+
+    /** What a history refresh costs: a range query per currency, then the points updated in place */
+    @Benchmark
+    public List<XYChart.Series<String, Number>> updatePercentagePoints() {
+        shift ^= 1;
+        for (int i = 0; i < CURRENCIES.size(); i++) {
+            String currency = CURRENCIES.get(i);
+            int lastDay = history.getLastDay("MAD", currency) - shift;
+            StatisticPreview.updatePercentagePoints(chartSeries.get(i).getData(),
+                    history.range("MAD", currency, lastDay - 13, lastDay));
+        }
+        return chartSeries;
+    }
+}
@@ -1,16 +1,34 @@
 package com.currencyApp;
 
 import com.currencyApp.config.Config;
+import com.currencyApp.metrics.ApiMetrics;
+import com.currencyApp.metrics.RateTableRebuildEvent;
+import com.currencyApp.metrics.SectionRebuildEvent;
+import com.currencyApp.model.CrossRateMatrix;
 import com.currencyApp.model.Currency;
+import com.currencyApp.model.ExchangeRateService;
+import com.currencyApp.model.ExchangeRateService.ApiException;
+import com.currencyApp.model.PairQuote;
+import com.currencyApp.model.RateHistory;
+import com.currencyApp.model.RateRefreshScheduler;
+import com.currencyApp.model.QuoteBatch;
+import com.currencyApp.model.RateSeries;
+import com.currencyApp.model.RateSnapshot;
+import com.currencyApp.model.RateTable;
 import com.currencyApp.ui.ComboBoxElement;
+import com.currencyApp.ui.DiagnosticsPanel;
+import com.currencyApp.ui.StatusBar;
+import com.currencyApp.util.Background;
 import com.currencyApp.util.CurrencyFormatter;
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
-import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
@@ -21,17 +39,47 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.util.Duration;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
-import static com.currencyApp.model.Currency.getTodayRates_OneCurrency;
+import static com.currencyApp.model.Currency.getTodayRates_OneCurrencyAsync;
 import com.currencyApp.ui.StatisticPreview;
 
 public class App extends Application {
+    private static final String STATISTIC_BASE = "MAD";
+    private static final List<String> STATISTIC_CURRENCIES = List.of("EUR", "CNY", "USD", "SAR");
+    private static final int STATISTIC_DAYS = 14;
+    private static final List<String> COMPARISON_CURRENCIES = List.of("EUR", "CNY", "USD", "SAR");
+    private static final int CHANGE_BADGE_DEBOUNCE_MS = 250;
+
     private boolean isExpanded = false;
 
+    // Cross rates derived from the rates against MAD; replaced on the FX thread when live rates arrive
+    private CrossRateMatrix crossRates = new CrossRateMatrix(RateTable.EMPTY);
+
+    // Daily rates for the statistics chart, from the snapshot and then merged with every fetch
+    private RateHistory rateHistory = new RateHistory();
+
+    // Periodic /fetch-all poll, started once the first live rates are in
+    private RateRefreshScheduler rateRefresh;
+
+    // The statistics chart once it has been built; later history is applied to it in place
+    private StatisticPreview statisticPreview;
+
+    // Rate label of each currency in the comparison strip
+    private final Map<String, Label> comparisonRateLabels = new HashMap<>();
+
+    // Where failed calls and load errors are reported, next to the title
+    private StatusBar statusBar;
+
+    // API client statistics window, created the first time it is opened
+    private Stage diagnosticsStage;
+
     private Currency findDefaultCurrency(List<Currency> currencies, String code) {
         if (currencies == null || currencies.isEmpty()) {
             return null;
@@ -55,13 +103,21 @@ public class App extends Application {
         VBox innerFrame = createInnerFrame();
         layout.getChildren().add(innerFrame);
 
-        List<Currency> currencies = Currency.getCurrencyListFromAPI();
-        List<Currency> currencyRates = Currency.getCurrencyRatesFromAPI();
+        // API client statistics for JConsole and VisualVM
+        ApiMetrics.registerMBeans();
 
-        if (currencies == null || currencies.isEmpty() || currencyRates == null || currencyRates.isEmpty()) {
-            showErrorAlert("Failed to load currency data. Please check your connection.");
-            return;
-        }
+        // Failed API calls show up in the status bar instead of a dialog per call
+        ExchangeRateService.setErrorListener((endpoint, error, servedStale) ->
+                Platform.runLater(() -> reportApiError(error, servedStale)));
+
+        // Draw from the last-known snapshot when there is one; live data is loaded in the background after show()
+        RateSnapshot snapshot = RateSnapshot.load(RateSnapshot.defaultPath());
+        boolean fromSnapshot = snapshot != null && snapshot.isUsable();
+
+        List<Currency> currencies = fromSnapshot ? snapshot.getCurrencies() : List.of();
+        crossRates = new CrossRateMatrix(fromSnapshot ? snapshot.getRates() : RateTable.EMPTY);
+        rateHistory = fromSnapshot ? snapshot.getHistory() : new RateHistory();
+        boolean hadHistory = hasStatisticHistory();
 
         ComboBoxElement fromCurrencyBox = new ComboBoxElement(currencies, findDefaultCurrency(currencies, "MAD"));
         ComboBoxElement toCurrencyBox = new ComboBoxElement(currencies, findDefaultCurrency(currencies, "USD"));
@@ -91,9 +147,9 @@ public class App extends Application {
         rightLabel.getStyleClass().add("label-Field");
         rightLabel.getStylesheets().add(Objects.requireNonNull(getClass().getResource("/com/currencyApp/assets/Style/EntryField.css")).toExternalForm());
 
-        // Create currency change section with array to hold reference
+        // Create currency change section with array to hold reference; filled in once its quote arrives
         HBox[] currencyChangeSection = new HBox[1];
-        currencyChangeSection[0] = createCurrencyChangeSection(fromCurrencyBox.getSelectedItem(), toCurrencyBox.getSelectedItem());
+        currencyChangeSection[0] = createPlaceholder();
 
         VBox rightSection = new VBox(2);
         rightSection.setPrefSize(309, 148);
@@ -105,16 +161,53 @@ public class App extends Application {
                 currencyChangeSection[0]
         );
 
-        // Combined update method
+        // The conversion is local and runs on every keystroke
+        Runnable updateConversion = () ->
+                calculateAndDisplay(amountField, fromCurrencyBox, toCurrencyBox, resultLabel);
+
+        // The change badge needs the network, so it is only refreshed when the pair really changes,
+        // debounced while the user is still flicking through currencies
+        String[] badgePair = {""};
+        CompletableFuture<?>[] pendingBadge = new CompletableFuture<?>[1];
+        PauseTransition badgeDebounce = new PauseTransition(Duration.millis(CHANGE_BADGE_DEBOUNCE_MS));
+        badgeDebounce.setOnFinished(event -> {
+            String fromCode = fromCurrencyBox.getSelectedItem();
+            String toCode = toCurrencyBox.getSelectedItem();
+            // A pair without two days to compare gets the "unavailable" badge
+            pendingBadge[0] = getTodayRates_OneCurrencyAsync(fromCode, toCode)
+                    .exceptionally(error -> null)
+                    .thenAcceptAsync(quote -> {
+                        SectionRebuildEvent rebuild = beginSection();
+                        currencyChangeSection[0] = createCurrencyChangeSection(quote);
+                        rightSection.getChildren().set(3, currencyChangeSection[0]);
+                        commitSection(rebuild, "change badge", fromCode + "/" + toCode, currencyChangeSection[0]);
+                    }, Background.FX);
+        });
+
         Runnable updateDisplay = () -> {
-            calculateAndDisplay(amountField, fromCurrencyBox, toCurrencyBox, currencyRates, resultLabel);
-            currencyChangeSection[0] = createCurrencyChangeSection(fromCurrencyBox.getSelectedItem(), toCurrencyBox.getSelectedItem());
+            updateConversion.run();
+
+            String fromCode = fromCurrencyBox.getSelectedItem();
+            String toCode = toCurrencyBox.getSelectedItem();
+            String pair = fromCode + "/" + toCode;
+            if (fromCode.isEmpty() || toCode.isEmpty() || pair.equals(badgePair[0])) {
+                return; // e.g. the live currency list replaced the items but kept the selected codes
+            }
+            badgePair[0] = pair;
+
+            // Whatever is in flight belongs to the previous pair
+            if (pendingBadge[0] != null) {
+                pendingBadge[0].cancel(true);
+                pendingBadge[0] = null;
+            }
+            currencyChangeSection[0] = createPlaceholder();
             rightSection.getChildren().set(3, currencyChangeSection[0]);
+            badgeDebounce.playFromStart();
         };
 
         fromCurrencyBox.getComboBox().valueProperty().addListener((obs, oldVal, newVal) -> updateDisplay.run());
         toCurrencyBox.getComboBox().valueProperty().addListener((obs, oldVal, newVal) -> updateDisplay.run());
-        amountField.textProperty().addListener((obs, oldVal, newVal) -> updateDisplay.run());
+        amountField.textProperty().addListener((obs, oldVal, newVal) -> updateConversion.run());
 
         VBox leftSection = new VBox(2);
         leftSection.setPrefSize(309, 148);
@@ -142,7 +235,10 @@ public class App extends Application {
         middleSection.setPrefSize(733, 40);
         middleSection.setAlignment(Pos.CENTER_LEFT);
 
-        HBox comparisonSection = createCurrencyComparisonSection(currencyRates);
+        // Filled in once the batched quotes arrive
+        HBox comparisonSection = new HBox(10);
+        comparisonSection.setAlignment(Pos.TOP_LEFT);
+        comparisonSection.getChildren().add(createPlaceholder());
         comparisonSection.setMinWidth(559);
 
         Button toggleButton = new Button("Show Statistics");
@@ -153,8 +249,10 @@ public class App extends Application {
         middleSection.getChildren().addAll(comparisonSection, toggleButton);
         layout.getChildren().add(middleSection);
 
-        // Create a more substantive statistics section
-        VBox statisticViewer = createStatisticsSection(currencyRates);
+        // Create a more substantive statistics section, from the snapshot's history until the live one arrives
+        VBox statisticViewer = hadHistory
+                ? createStatisticsSection(createStatisticPreview())
+                : createStatisticsSection(createPlaceholder());
         statisticViewer.setVisible(false); // Initially hidden
         statisticViewer.setManaged(false); // Won't take up space when hidden
 
@@ -198,121 +296,365 @@ public class App extends Application {
         scene.setFill(Color.TRANSPARENT);
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        // Initial conversion and change badge for the snapshot's pair, if any
+        updateDisplay.run();
+
+        loadLiveData(fromSnapshot, currencies, fromCurrencyBox, toCurrencyBox,
+                comparisonSection, statisticViewer, updateConversion);
     }
 
-    private VBox createStatisticsSection(List<Currency> currencyRates) {
-        VBox statsSection = new VBox(20);
-        statsSection.setPadding(new Insets(20));
+    /**
+     * Fetches the currency list, rates, comparison quotes and history concurrently on background threads
+     * and fills in each section on the FX thread as soon as its own data has arrived
+     *
+     * @param snapshotCurrencies the currency list drawn so far, saved again if the live one cannot be loaded
+     */
+    private void loadLiveData(boolean fromSnapshot, List<Currency> snapshotCurrencies,
+                              ComboBoxElement fromCurrencyBox, ComboBoxElement toCurrencyBox,
+                              HBox comparisonSection, VBox statisticViewer, Runnable updateConversion) {
+        CompletableFuture<List<Currency>> currenciesFuture = Background.supply(Currency::getCurrencyListFromAPI);
+        CompletableFuture<RateTable> ratesFuture = Background.supply(Currency::getCurrencyRatesFromAPI);
+        CompletableFuture<QuoteBatch> quotesFuture =
+                Background.supply(() -> Currency.getTodayRates_ManyCurrencies(COMPARISON_CURRENCIES, "MAD"));
+        CompletableFuture<Integer> historyFuture =
+                fetchHistoricalRatesAsync(rateHistory, STATISTIC_BASE, STATISTIC_CURRENCIES);
+
+        // Quotes of the comparison strip, rendered with whatever rates are known at that point
+        AtomicReference<QuoteBatch> quotes = new AtomicReference<>();
+        Runnable renderComparison = () -> {
+            if (quotes.get() != null) {
+                fillCurrencyComparisonSection(comparisonSection, quotes.get());
+            }
+        };
 
-        // Get the base currency from the application (default to MAD)
-        String baseCurrency = "MAD";
+        currenciesFuture.thenAcceptAsync(liveCurrencies -> {
+            if (liveCurrencies != null && !liveCurrencies.isEmpty()) {
+                fromCurrencyBox.setCurrencies(liveCurrencies, findDefaultCurrency(liveCurrencies, "MAD"));
+                toCurrencyBox.setCurrencies(liveCurrencies, findDefaultCurrency(liveCurrencies, "USD"));
+            }
+        }, Background.FX);
+
+        // Even without live rates the poll starts, from the snapshot's rates
+        ratesFuture.exceptionally(error -> null).thenAcceptAsync(liveRates -> {
+            if (liveRates != null && !liveRates.isEmpty()) {
+                RateTableRebuildEvent event = new RateTableRebuildEvent();
+                event.begin();
+                crossRates = new CrossRateMatrix(liveRates);
+                commitRebuild(event, liveRates.size(), true);
+                updateConversion.run();
+                renderComparison.run();
+            }
+            // Keep the rates live from here on, diffed against what is on screen now
+            startRateRefresh(liveRates != null && !liveRates.isEmpty() ? liveRates : crossRates.getRateTable().copy(),
+                    updateConversion);
+        }, Background.FX);
+
+        quotesFuture.thenAcceptAsync(result -> {
+            quotes.set(result);
+            renderComparison.run();
+        }, Background.FX);
+
+        historyFuture.thenAcceptAsync(fetched -> {
+            if (statisticPreview != null) {
+                if (fetched > 0) {
+                    statisticPreview.setHistory(statisticHistory());
+                }
+            } else {
+                SectionRebuildEvent event = beginSection();
+                statisticViewer.getChildren().setAll(createStatisticPreview());
+                commitSection(event, "statistics", STATISTIC_BASE + "/" + String.join(",", STATISTIC_CURRENCIES), statisticViewer);
+            }
+        }, Background.FX);
+
+        // Once everything has settled, persist what did load for the next start and report what did not
+        CompletableFuture.allOf(currenciesFuture, ratesFuture, historyFuture).whenCompleteAsync((ignored, error) -> {
+            List<Currency> liveCurrencies = resultOrNull(currenciesFuture);
+            RateTable liveRates = resultOrNull(ratesFuture);
+            Integer fetchedHistory = resultOrNull(historyFuture);
+            boolean gotCurrencies = liveCurrencies != null && !liveCurrencies.isEmpty();
+            boolean gotRates = liveRates != null && !liveRates.isEmpty();
+            boolean gotHistory = fetchedHistory != null && fetchedHistory > 0;
+
+            List<Currency> savedCurrencies = gotCurrencies ? liveCurrencies : snapshotCurrencies;
+            if ((gotCurrencies || gotRates || gotHistory) && !savedCurrencies.isEmpty() && !crossRates.isEmpty()) {
+                // The history still holds the snapshot's series for any currency the API did not deliver this time
+                saveSnapshot(savedCurrencies, crossRates.getRateTable().copy(), rateHistory);
+            }
 
-        // Select target currencies for comparison
-        List<String> targetCurrencies = Arrays.asList("EUR", "CNY", "USD", "SAR");
+            List<String> failed = new ArrayList<>(3);
+            if (!gotCurrencies) {
+                failed.add("currencies");
+            }
+            if (!gotRates) {
+                failed.add("rates");
+            }
+            if (historyFuture.isCompletedExceptionally()) {
+                failed.add("history");
+            }
+            if (failed.isEmpty()) {
+                return;
+            }
+            String message = "Failed to load " + String.join(", ", failed) + ". Please check your connection.";
+            if (fromSnapshot) {
+                statusBar.showWarning("Showing saved rates. " + message);
+            } else {
+                statusBar.showError(message);
+            }
+        }, Background.FX);
+    }
 
-        // Create a map to store historical rates for each target currency
-        Map<String, Map<String, Float>> historicalRates = new HashMap<>();
+    /**
+     * @return the value of a completed future, or null if it failed
+     */
+    private static <T> T resultOrNull(CompletableFuture<T> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
 
-        // Process each target currency to get historical data
-        for (String targetCurrency : targetCurrencies) {
-            // Create a map to store date -> rate pairs
-            Map<String, Float> dateRateMap = new HashMap<>();
+    /**
+     * Polls /fetch-all every "refresh.intervalSeconds" (0 turns it off) and applies only the changed rates
+     */
+    private void startRateRefresh(RateTable baseline, Runnable updateConversion) {
+        long intervalSeconds = Config.getLong("refresh.intervalSeconds", 60);
+        if (intervalSeconds <= 0 || rateRefresh != null) {
+            return;
+        }
+        rateRefresh = new RateRefreshScheduler(() -> Currency.pollCurrencyRatesAsync().join(), intervalSeconds,
+                update -> applyRateUpdate(update, updateConversion), Background.FX);
+        rateRefresh.start(baseline);
+    }
 
-            try {
-                // Use the new method to fetch 14-day historical data from API
-                Map<String, Map<String, Object>> historicalData = Currency.getChangesInPast14days(baseCurrency, targetCurrency);
-
-                if (historicalData != null && historicalData.containsKey(targetCurrency)) {
-                    // Extract the date -> rate map for this currency
-                    Map<String, Object> currencyData = historicalData.get(targetCurrency);
-
-                    // Convert the data to our format (date -> float)
-                    for (Map.Entry<String, Object> entry : currencyData.entrySet()) {
-                        String date = entry.getKey();
-                        Double rate = (Double) entry.getValue();
-                        dateRateMap.put(date, rate.floatValue());
-                    }
-                } else {
-                    // If API call failed, fall back to current rate with deterministic pattern
-                    double currentRate = getRateForCurrency(currencyRates, targetCurrency);
-                    LocalDate currentDate = LocalDate.now();
-
-                    for (int i = 0; i < 14; i++) {
-                        LocalDate date = currentDate.minusDays(i);
-                        String dateString = date.format(DateTimeFormatter.ISO_LOCAL_DATE);
-
-                        // Create a deterministic pattern based on the date
-                        // This ensures the chart looks the same every time
-                        double dayOfYear = date.getDayOfYear();
-                        double yearFactor = date.getYear() * 0.01;
-                        double patternFactor = Math.sin(dayOfYear / 15.0) * 0.02;
-
-                        // Use the current rate as baseline
-                        float rate = (float) (currentRate * (1 + patternFactor + yearFactor));
-                        dateRateMap.put(dateString, rate);
-                    }
+    /**
+     * Updates the matrix in place for the changed currencies and refreshes the labels that show rates,
+     * without rebuilding any nodes. Runs on the FX thread.
+     */
+    private void applyRateUpdate(RateRefreshScheduler.Update update, Runnable updateConversion) {
+        RateTableRebuildEvent event = new RateTableRebuildEvent();
+        event.begin();
+        RateTable rateTable = crossRates.getRateTable();
+        boolean rebuild = update.newCurrencies();
+        for (int i = 0; i < update.size() && !rebuild; i++) {
+            int id = rateTable.indexOf(update.changedCodes()[i]);
+            if (id < 0) {
+                rebuild = true;
+            } else {
+                crossRates.setBaseRate(id, update.changedRates()[i]);
+            }
+        }
+        if (rebuild) {
+            crossRates = new CrossRateMatrix(update.table());
+        }
+        commitRebuild(event, update.size(), rebuild);
 
-                    System.out.println("Using fallback data pattern for " + targetCurrency);
-                }
+        updateConversion.run();
+        for (Map.Entry<String, Label> comparison : comparisonRateLabels.entrySet()) {
+            showComparisonRate(comparison.getValue(), comparison.getKey(), "MAD");
+        }
+    }
+
+    private void commitRebuild(RateTableRebuildEvent event, int changed, boolean fullRebuild) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.pair = crossRates.getRateTable().getBase();
+            event.currencies = crossRates.size();
+            event.changed = changed;
+            event.fullRebuild = fullRebuild;
+            event.commit();
+        }
+    }
+
+    private static SectionRebuildEvent beginSection() {
+        SectionRebuildEvent event = new SectionRebuildEvent();
+        event.begin();
+        return event;
+    }
+
+    private static void commitSection(SectionRebuildEvent event, String section, String pair, Parent root) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.section = section;
+            event.pair = pair;
+            event.nodes = countNodes(root);
+            event.commit();
+        }
+    }
+
+    private static int countNodes(Parent parent) {
+        int count = 1;
+        for (Node child : parent.getChildrenUnmodifiable()) {
+            count += child instanceof Parent childParent ? countNodes(childParent) : 1;
+        }
+        return count;
+    }
+
+    @Override
+    public void stop() {
+        if (rateRefresh != null) {
+            rateRefresh.close();
+        }
+    }
+
+    private HBox createPlaceholder() {
+        HBox placeholder = new HBox();
+        placeholder.setAlignment(Pos.CENTER_LEFT);
+        Label loadingLabel = new Label("Loading…");
+        loadingLabel.setFont(Font.font("Segoe UI", FontWeight.NORMAL, 12));
+        loadingLabel.setStyle("-fx-text-fill: #B2B2B2;");
+        placeholder.getChildren().add(loadingLabel);
+        return placeholder;
+    }
+
+    private void saveSnapshot(List<Currency> currencies, RateTable rates, RateHistory history) {
+        // Copy the list on the caller's thread and write on a background one; the history guards itself
+        RateSnapshot snapshot = new RateSnapshot(new ArrayList<>(currencies), rates, history);
+        Background.run(() -> {
+            try {
+                snapshot.save(RateSnapshot.defaultPath());
             } catch (Exception e) {
-                System.err.println("Error getting historical data for " + targetCurrency + ": " + e.getMessage());
-                e.printStackTrace();
-
-                // If there's an error, create fallback deterministic data
-                LocalDate currentDate = LocalDate.now();
-                for (int i = 0; i < 14; i++) {
-                    LocalDate date = currentDate.minusDays(i);
-                    String dateString = date.format(DateTimeFormatter.ISO_LOCAL_DATE);
-
-                    // Use a base rate specific to the currency
-                    float baseRate = switch(targetCurrency) {
-                        case "EUR" -> 0.09f;
-                        case "CNY" -> 0.72f;
-                        case "USD" -> 0.1f;
-                        case "SAR" -> 0.078f;
-                        default -> 0.1f;
-                    };
-
-                    // Apply deterministic pattern
-                    double dayOfYear = date.getDayOfYear();
-                    double patternFactor = Math.sin(dayOfYear / 15.0) * 0.02;
-                    float rate = baseRate * (1 + (float)patternFactor);
-
-                    dateRateMap.put(dateString, rate);
-                }
+                System.err.println("Failed to save rate snapshot: " + e.getMessage());
             }
+        });
+    }
 
-            // Add the date -> rate map for this currency to the historical rates map
-            historicalRates.put(targetCurrency, dateRateMap);
+    /**
+     * Brings the 14-day history of every target currency up to date concurrently, fetching only
+     * the days the store does not have yet. Currencies whose history could not be fetched keep
+     * what the store already had.
+     *
+     * @return future completed with the number of currencies that got new days
+     */
+    private static CompletableFuture<Integer> fetchHistoricalRatesAsync(RateHistory history, String baseCurrency,
+                                                                        List<String> targetCurrencies) {
+        AtomicInteger fetched = new AtomicInteger();
+
+        CompletableFuture<?>[] fetches = new CompletableFuture<?>[targetCurrencies.size()];
+        for (int i = 0; i < fetches.length; i++) {
+            String targetCurrency = targetCurrencies.get(i);
+            fetches[i] = Background.run(() -> {
+                try {
+                    if (Currency.updateHistory(history, baseCurrency, targetCurrency, STATISTIC_DAYS) > 0) {
+                        fetched.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error getting historical data for " + targetCurrency + ": " + e.getMessage());
+                    e.printStackTrace();
+                }
+            });
         }
 
-        // Create and add the StatisticPreview component
-        StatisticPreview statisticPreview = new StatisticPreview(
-                baseCurrency,
-                targetCurrencies,
-                historicalRates
-        );
+        return CompletableFuture.allOf(fetches).thenApply(ignored -> fetched.get());
+    }
+
+    private boolean hasStatisticHistory() {
+        for (String targetCurrency : STATISTIC_CURRENCIES) {
+            if (!rateHistory.contains(STATISTIC_BASE, targetCurrency)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private VBox createStatisticsSection(javafx.scene.Node content) {
+        VBox statsSection = new VBox(20);
+        statsSection.setPadding(new Insets(20));
 
         // Add the statistic preview to the stats section
-        statsSection.getChildren().add(statisticPreview);
+        statsSection.getChildren().add(content);
 
         return statsSection;
     }
 
-    private HBox createCurrencyChangeSection(String fromCurrency, String toCurrency) {
+    private StatisticPreview createStatisticPreview() {
+        statisticPreview = new StatisticPreview(STATISTIC_BASE, statisticHistory(), statusBar::showWarning);
+        return statisticPreview;
+    }
+
+    private List<RateSeries> statisticHistory() {
+        // Get the base currency from the application (default to MAD)
+        String baseCurrency = STATISTIC_BASE;
+
+        // Select target currencies for comparison
+        List<String> targetCurrencies = STATISTIC_CURRENCIES;
+
+        // The last STATISTIC_DAYS days each currency has rates for, straight from the store
+        List<RateSeries> historicalRates = new ArrayList<>(targetCurrencies.size());
+        for (String targetCurrency : targetCurrencies) {
+            int lastDay = rateHistory.getLastDay(baseCurrency, targetCurrency);
+            historicalRates.add(lastDay != Integer.MIN_VALUE
+                    ? rateHistory.range(baseCurrency, targetCurrency, lastDay - (STATISTIC_DAYS - 1), lastDay)
+                    : createFallbackSeries(baseCurrency, targetCurrency));
+        }
+
+        return historicalRates;
+    }
+
+    /**
+     * Deterministic stand-in for a currency the API could not deliver history for
+     */
+    private RateSeries createFallbackSeries(String baseCurrency, String targetCurrency) {
+        int[] epochDays = new int[14];
+        double[] rates = new double[14];
+        LocalDate currentDate = LocalDate.now();
+
+        try {
+            // If API call failed, fall back to current rate with deterministic pattern
+            double currentRate = getRateForCurrency(targetCurrency);
+
+            for (int i = 0; i < 14; i++) {
+                LocalDate date = currentDate.minusDays(13 - i);
+
+                // Create a deterministic pattern based on the date
+                // This ensures the chart looks the same every time
+                double dayOfYear = date.getDayOfYear();
+                double yearFactor = date.getYear() * 0.01;
+                double patternFactor = Math.sin(dayOfYear / 15.0) * 0.02;
+
+                // Use the current rate as baseline
+                epochDays[i] = (int) date.toEpochDay();
+                rates[i] = (float) (currentRate * (1 + patternFactor + yearFactor));
+            }
+
+            System.out.println("Using fallback data pattern for " + targetCurrency);
+        } catch (Exception e) {
+            System.err.println("Error getting historical data for " + targetCurrency + ": " + e.getMessage());
+            e.printStackTrace();
+
+            // If there's an error, create fallback deterministic data
+            for (int i = 0; i < 14; i++) {
+                LocalDate date = currentDate.minusDays(13 - i);
+
+                // Use a base rate specific to the currency
+                float baseRate = switch(targetCurrency) {
+                    case "EUR" -> 0.09f;
+                    case "CNY" -> 0.72f;
+                    case "USD" -> 0.1f;
+                    case "SAR" -> 0.078f;
+                    default -> 0.1f;
+                };
+
+                // Apply deterministic pattern
+                double dayOfYear = date.getDayOfYear();
+                double patternFactor = Math.sin(dayOfYear / 15.0) * 0.02;
+                epochDays[i] = (int) date.toEpochDay();
+                rates[i] = baseRate * (1 + (float)patternFactor);
+            }
+        }
+
+        return new RateSeries(baseCurrency, targetCurrency, epochDays, rates);
+    }
+
+    private HBox createCurrencyChangeSection(PairQuote quote) {
         HBox mainContainer = new HBox(8);
         mainContainer.setAlignment(Pos.CENTER_LEFT);
 
         try {
-            Map<String, Map<String, Object>> result = getTodayRates_OneCurrency(fromCurrency, toCurrency);
-
-            if (result == null || !result.containsKey("rates")) {
+            if (quote == null) {
                 throw new Exception("Invalid currency data");
             }
 
-            float currentRate = (Float) result.get("rates").get(toCurrency);
-            String changePercentage = (String) result.get("changes").get(toCurrency);
-            boolean isPositive = (Boolean) result.get("directions").get(toCurrency);
+            float currentRate = quote.rate();
+            String changePercentage = CurrencyFormatter.formatPercentageChange(Math.abs(quote.changePercent()));
+            boolean isPositive = quote.isRising();
 
             HBox changeContainer = new HBox();
             changeContainer.setAlignment(Pos.CENTER);
@@ -351,20 +693,18 @@ public class App extends Application {
         return mainContainer;
     }
 
-    private HBox currencyChangePercentage(String fromCurrency, String toCurrency) {
+    private HBox currencyChangePercentage(String fromCurrency, String toCurrency, QuoteBatch quotes) {
         HBox changeContainer = new HBox();
         changeContainer.setAlignment(Pos.CENTER_LEFT);
 
         try {
-            Map<String, Map<String, Object>> result = getTodayRates_OneCurrency(fromCurrency, toCurrency);
-
-            if (result == null || !result.containsKey("rates")) {
+            int quote = quotes == null ? -1 : quotes.indexOf(fromCurrency, toCurrency);
+            if (quote < 0) {
                 throw new Exception("Invalid currency data");
             }
 
-            float currentRate = (Float) result.get("rates").get(toCurrency);
-            String changePercentage = (String) result.get("changes").get(toCurrency);
-            boolean isPositive = (Boolean) result.get("directions").get(toCurrency);
+            String changePercentage = CurrencyFormatter.formatPercentageChange(Math.abs(quotes.getChangePercent(quote)));
+            boolean isPositive = quotes.isRising(quote);
 
             Label FromCurrency = new Label(fromCurrency);
             FromCurrency.setFont(Font.font("Segoe UI", FontWeight.BOLD, 12));
@@ -392,21 +732,19 @@ public class App extends Application {
         return changeContainer;
     }
 
-    private HBox createCurrencyComparisonSection(List<Currency> currencyRates) {
-        HBox comparisonContainer = new HBox(10);
-        comparisonContainer.setAlignment(Pos.TOP_LEFT);
-
-        String[] currenciesToCompare = {"EUR", "CNY", "USD", "SAR"};
-
-        for (String currencyCode : currenciesToCompare) {
-            VBox currencyBox = createSingleCurrencyComparison(currencyCode, "MAD", currencyRates);
-            comparisonContainer.getChildren().add(currencyBox);
+    private void fillCurrencyComparisonSection(HBox comparisonContainer, QuoteBatch quotes) {
+        SectionRebuildEvent event = beginSection();
+        List<VBox> currencyBoxes = new ArrayList<>();
+        for (String currencyCode : COMPARISON_CURRENCIES) {
+            currencyBoxes.add(createSingleCurrencyComparison(currencyCode, "MAD", quotes));
         }
 
-        return comparisonContainer;
+        comparisonContainer.getChildren().setAll(currencyBoxes);
+        commitSection(event, "comparison", String.join(",", COMPARISON_CURRENCIES) + "/MAD", comparisonContainer);
     }
 
-    private VBox createSingleCurrencyComparison(String fromCurrency, String toCurrency, List<Currency> currencyRates) {
+    private VBox createSingleCurrencyComparison(String fromCurrency, String toCurrency,
+                                                QuoteBatch quotes) {
         VBox container = new VBox();
         container.setAlignment(Pos.TOP_LEFT);
         container.setStyle(
@@ -424,44 +762,38 @@ public class App extends Application {
         Label rateLabel = new Label();
         rateLabel.setStyle("-fx-text-fill: #FFFFFF; -fx-font-weight: bold; -fx-font-size: 12;");
 
-        HBox CurrencyChangeSection = currencyChangePercentage(fromCurrency, toCurrency);
+        HBox CurrencyChangeSection = currencyChangePercentage(fromCurrency, toCurrency, quotes);
+        showComparisonRate(rateLabel, fromCurrency, toCurrency);
+        comparisonRateLabels.put(fromCurrency, rateLabel); // updated in place by the rate refresh
+
+        container.getChildren().addAll(pairLabelContainer, rateLabel, CurrencyChangeSection);
+        return container;
+    }
+
+    private void showComparisonRate(Label rateLabel, String fromCurrency, String toCurrency) {
         try {
-            double fromRate = getRateForCurrency(currencyRates, fromCurrency);
-            double toRate = getRateForCurrency(currencyRates, toCurrency);
-            double rate = fromRate / toRate;
+            // fromRate / toRate against the base, i.e. the cross rate from toCurrency into fromCurrency
+            double rate = getCrossRate(toCurrency, fromCurrency);
             rateLabel.setText(CurrencyFormatter.formatExchangeRate(rate));
 
         } catch (Exception e) {
             rateLabel.setText("N/A");
         }
-
-        container.getChildren().addAll(pairLabelContainer, rateLabel, CurrencyChangeSection);
-        return container;
     }
 
     private void calculateAndDisplay(TextField amountField, ComboBoxElement fromBox,
-                                     ComboBoxElement toBox, List<Currency> currencyRates,
-                                     Label resultLabel) {
+                                     ComboBoxElement toBox, Label resultLabel) {
         try {
             String fromCode = fromBox.getSelectedItem();
             String toCode = toBox.getSelectedItem();
 
-            if (amountField.getText() == null || amountField.getText().trim().isEmpty()) {
+            if (amountField.getText() == null || amountField.getText().trim().isEmpty() || crossRates.isEmpty()) {
                 resultLabel.setText("");
                 return;
             }
 
             double amount = Double.parseDouble(amountField.getText());
-            double fromRate = getRateForCurrency(currencyRates, fromCode);
-            double toRate = getRateForCurrency(currencyRates, toCode);
-
-            if (fromRate == 0 || toRate == 0) {
-                resultLabel.setText("Error: Invalid exchange rate");
-                return;
-            }
-
-            double baseAmount = amount / fromRate;
-            double converted = baseAmount * toRate;
+            double converted = amount * getCrossRate(fromCode, toCode);
             resultLabel.setText(CurrencyFormatter.formatConversionRate(converted));
 
         } catch (NumberFormatException e) {
@@ -471,21 +803,29 @@ public class App extends Application {
         }
     }
 
-    private double getRateForCurrency(List<Currency> currencyList, String code) {
-        for (Currency c : currencyList) {
-            if (c.getCode().equals(code)) {
-                return c.getRate();
-            }
+    private double getRateForCurrency(String code) {
+        RateTable rateTable = crossRates.getRateTable();
+        int id = rateTable.indexOf(code);
+        if (id < 0) {
+            throw new IllegalArgumentException("Rate not found for " + code);
         }
-        throw new IllegalArgumentException("Rate not found for " + code);
+        return rateTable.getRate(id);
     }
 
-    private void showErrorAlert(String message) {
-        Alert alert = new Alert(Alert.AlertType.ERROR);
-        alert.setTitle("Error");
-        alert.setHeaderText(null);
-        alert.setContentText(message);
-        alert.showAndWait();
+    /**
+     * @return units of the "to" currency per one unit of the "from" currency
+     */
+    private double getCrossRate(String fromCode, String toCode) {
+        return crossRates.getCrossRate(fromCode, toCode);
+    }
+
+    private void reportApiError(ApiException error, boolean servedStale) {
+        String message = error.getMessage() + (error.getStatusCode() > 0 ? " (Status code: " + error.getStatusCode() + ")" : "");
+        if (servedStale) {
+            statusBar.showWarning("Showing saved rates. " + message);
+        } else {
+            statusBar.showError(message);
+        }
     }
 
     private void setupPrimaryStage(Stage primaryStage) {
@@ -531,7 +871,16 @@ public class App extends Application {
         Label title = new Label("FXFlip - Foreign Exchange");
         title.setFont(Font.font("Segoe UI", FontWeight.SEMI_BOLD, 26));
         title.setStyle("-fx-text-fill: white;");
-        title.setMinWidth(650);
+        title.setMinWidth(Region.USE_PREF_SIZE);
+
+        // Takes the space between the title and the close button
+        statusBar = new StatusBar();
+
+        Label diagnostics = new Label("📈 Diagnostics");
+        diagnostics.setFont(Font.font("Segoe UI", FontWeight.BOLD, 12));
+        diagnostics.setStyle("-fx-text-fill: #8A8A8A; -fx-cursor: hand; ");
+        diagnostics.setMinWidth(Region.USE_PREF_SIZE);
+        diagnostics.setOnMouseClicked(event -> toggleDiagnostics((Stage) diagnostics.getScene().getWindow()));
 
         Label close = new Label("❌ Close");
         close.setFont(Font.font("Segoe UI", FontWeight.BOLD, 12));
@@ -541,13 +890,31 @@ public class App extends Application {
         });
 
 
-        titleContainer.getChildren().addAll(title, close);
+        titleContainer.getChildren().addAll(title, statusBar, diagnostics, close);
 
         innerFrame.getChildren().add(titleContainer);
 
         return innerFrame;
     }
 
+    private void toggleDiagnostics(Stage owner) {
+        if (diagnosticsStage == null) {
+            DiagnosticsPanel panel = new DiagnosticsPanel();
+            diagnosticsStage = new Stage(StageStyle.UTILITY);
+            diagnosticsStage.initOwner(owner);
+            diagnosticsStage.setTitle("API diagnostics");
+            diagnosticsStage.setScene(new Scene(panel));
+            // Only refresh while someone is looking
+            diagnosticsStage.setOnShown(event -> panel.start());
+            diagnosticsStage.setOnHidden(event -> panel.stop());
+        }
+        if (diagnosticsStage.isShowing()) {
+            diagnosticsStage.hide();
+        } else {
+            diagnosticsStage.show();
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
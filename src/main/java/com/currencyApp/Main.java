@@ -1,7 +1,28 @@
 package com.currencyApp;
 
+import com.currencyApp.batch.BatchConverter;
+import com.currencyApp.metrics.FlightRecording;
+import com.currencyApp.server.ConversionServer;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // Flight recording of the whole run: --profile[=file.jfr], before any other arguments
+        if (args.length > 0 && (args[0].equals("--profile") || args[0].startsWith("--profile="))) {
+            FlightRecording.start(args[0].startsWith("--profile=") ? Paths.get(args[0].substring("--profile=".length())) : null);
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+        // Headless batch conversion: --convert <in.csv> <out.csv> [--threads N]
+        if (args.length > 0 && args[0].equals("--convert")) {
+            System.exit(BatchConverter.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        // Headless conversion API: --serve [--host 127.0.0.1] [--port 8090]
+        if (args.length > 0 && args[0].equals("--serve")) {
+            ConversionServer.serve(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         App.launch(App.class, args);
     }
 }
@@ -0,0 +1,401 @@
+package com.currencyApp.batch;
+
+import com.currencyApp.model.RateSource;
+import com.currencyApp.model.RateTable;
+import com.currencyApp.util.CurrencyFormatter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Converts a CSV ledger of "amount,from,to[,date]" rows without a UI.
+ * The file is streamed through a pipeline: the calling thread reads chunks of rows, a pool of
+ * workers parses and converts them in parallel, and a writer thread appends the results in input
+ * order. At most two chunks per worker are in flight at any time, so memory stays constant
+ * however large the file is.
+ * Rows with a date are converted with that day's rates, which are fetched once per distinct date;
+ * rows without one use the latest rates. Fields may be quoted as in RFC 4180, but not span lines.
+ * Every output row is "amount,from,to,date,rate,converted,error", with the date left empty for
+ * undated rows; a row that cannot be converted keeps its place with only the error filled in.
+ */
+public class BatchConverter {
+    private static final int CHUNK_ROWS = 4096;
+    private static final String HEADER = "amount,from,to,date";
+    private static final int FIELDS = 4;
+
+    // Stands for "no date" in the table map, which cannot hold null keys
+    private static final LocalDate LATEST = LocalDate.MIN;
+
+    /**
+     * Outcome of a run
+     */
+    public record Summary(long rows, long failedRows, int dates, long elapsedNanos) {
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows / (elapsedNanos / 1e9);
+        }
+    }
+
+    private final RateSource source;
+    private final int threads;
+    private final ConcurrentHashMap<LocalDate, CompletableFuture<RateTable>> tables = new ConcurrentHashMap<>();
+
+    public BatchConverter(RateSource source, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.source = source;
+        this.threads = threads;
+    }
+
+    /**
+     * Streams the rows of in to out; neither is closed
+     */
+    public Summary convert(Reader in, Writer out) throws IOException {
+        long startedAt = System.nanoTime();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "fxflip-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Chunks in input order; the bound is what keeps memory constant
+        BlockingQueue<Future<Chunk>> pending = new ArrayBlockingQueue<>(threads * 2);
+        Future<Chunk> end = CompletableFuture.completedFuture(null);
+        OrderedWriter writer = new OrderedWriter(pending, out);
+        Thread writerThread = new Thread(writer, "fxflip-batch-writer");
+        writerThread.setDaemon(true);
+
+        try {
+            BufferedReader reader = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in, 64 * 1024);
+            String first = reader.readLine();
+            boolean hasHeader = first != null && isHeader(first);
+            // Rows with and without a date are written alike, so the columns are the same whatever the input has
+            out.write(HEADER + ",rate,converted,error\n");
+            writerThread.start();
+
+            String[] lines = new String[CHUNK_ROWS];
+            int count = 0;
+            if (first != null && !hasHeader) {
+                lines[count++] = first;
+            }
+            String line;
+            while ((line = reader.readLine()) != null && writer.failure.get() == null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                lines[count++] = line;
+                if (count == CHUNK_ROWS) {
+                    submit(workers, pending, lines, count);
+                    lines = new String[CHUNK_ROWS];
+                    count = 0;
+                }
+            }
+            if (count > 0) {
+                submit(workers, pending, lines, count);
+            }
+            pending.put(end);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while converting", e);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        if (writer.failure.get() != null) {
+            throw writer.failure.get();
+        }
+        out.flush();
+        return new Summary(writer.rows, writer.failedRows, tables.size(), System.nanoTime() - startedAt);
+    }
+
+    private void submit(ExecutorService workers, BlockingQueue<Future<Chunk>> pending, String[] lines, int count)
+            throws InterruptedException {
+        pending.put(workers.submit(() -> convertChunk(lines, count)));
+    }
+
+    private Chunk convertChunk(String[] lines, int count) {
+        StringBuilder text = new StringBuilder(count * 64);
+        // The chunk's rate tables; a date whose rates failed stays failed for the rest of the chunk
+        Map<LocalDate, CompletableFuture<RateTable>> chunkTables = new HashMap<>();
+        int failed = 0;
+        for (int i = 0; i < count; i++) {
+            if (!convertRow(lines[i], text, chunkTables)) {
+                failed++;
+            }
+        }
+        return new Chunk(text.toString(), count, failed);
+    }
+
+    /**
+     * Appends the converted row to out
+     *
+     * @param chunkTables rate tables already looked up for the chunk, by date
+     * @return false if the row could not be converted
+     */
+    boolean convertRow(String line, StringBuilder out, Map<LocalDate, CompletableFuture<RateTable>> chunkTables) {
+        String[] fields;
+        try {
+            fields = splitRow(line);
+        } catch (IllegalArgumentException e) {
+            // Kept whole in the amount column, so the columns still line up
+            appendField(out, line);
+            out.append(",,,");
+            return appendError(out, e.getMessage());
+        }
+        for (int i = 0; i < FIELDS; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendField(out, i < fields.length ? fields[i] : "");
+        }
+
+        try {
+            if (fields.length < 3) {
+                throw new IllegalArgumentException("Expected amount,from,to[,date]");
+            }
+            double amount = Double.parseDouble(fields[0]);
+            String from = fields[1].toUpperCase(Locale.ROOT);
+            String to = fields[2].toUpperCase(Locale.ROOT);
+            String dateField = fields.length > 3 ? fields[3] : "";
+            LocalDate date = dateField.isEmpty() ? null : LocalDate.parse(dateField);
+
+            RateTable table = chunkTables.computeIfAbsent(date == null ? LATEST : date, this::ratesOn).join();
+            double fromRate = table.getRate(from);
+            double toRate = table.getRate(to);
+            if (Double.isNaN(fromRate) || fromRate == 0) {
+                throw new IllegalArgumentException("No rate for " + from);
+            }
+            if (Double.isNaN(toRate)) {
+                throw new IllegalArgumentException("No rate for " + to);
+            }
+
+            // Same cross rate as CrossRateMatrix: rate[to] / rate[from] against the table's base
+            double rate = toRate / fromRate;
+            out.append(',');
+            CurrencyFormatter.appendFixed(out, rate, 6).append(',');
+            CurrencyFormatter.appendFixed(out, amount * rate, 4).append(",\n");
+            return true;
+        } catch (NumberFormatException e) {
+            return appendError(out, "Invalid amount");
+        } catch (DateTimeParseException e) {
+            return appendError(out, "Invalid date");
+        } catch (IllegalArgumentException e) {
+            return appendError(out, e.getMessage());
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return appendError(out, "Rates unavailable: " + cause.getMessage());
+        }
+    }
+
+    /**
+     * @param key a date, or LATEST
+     */
+    private CompletableFuture<RateTable> ratesOn(LocalDate key) {
+        CompletableFuture<RateTable> table = tables.computeIfAbsent(key, date -> source.ratesOn(date == LATEST ? null : date));
+        // A failed fetch is forgotten, so a later chunk asks again instead of every remaining row of the date failing
+        table.whenComplete((value, error) -> {
+            if (error != null) {
+                tables.remove(key, table);
+            }
+        });
+        return table;
+    }
+
+    private static boolean appendError(StringBuilder out, String message) {
+        out.append(",,,").append(message.replace(',', ';').replace('\n', ' ')).append('\n');
+        return false;
+    }
+
+    /**
+     * Splits a row into at most four fields, trimmed unless quoted. A quoted field may contain
+     * commas and doubled quotes.
+     *
+     * @throws IllegalArgumentException if the row has more fields or a quote out of place
+     */
+    private static String[] splitRow(String line) {
+        String[] fields = new String[FIELDS];
+        int count = 0;
+        int i = 0;
+        int length = line.length();
+        while (true) {
+            if (count == FIELDS) {
+                throw new IllegalArgumentException("Expected at most " + FIELDS + " fields: " + HEADER);
+            }
+            while (i < length && line.charAt(i) == ' ') {
+                i++;
+            }
+            if (i < length && line.charAt(i) == '"') {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i == length) {
+                        throw new IllegalArgumentException("Unterminated quote");
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (i < length && line.charAt(i) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                while (i < length && line.charAt(i) == ' ') {
+                    i++;
+                }
+                if (i < length && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Unexpected text after a quoted field");
+                }
+                fields[count++] = value.toString();
+            } else {
+                int comma = line.indexOf(',', i);
+                int stop = comma < 0 ? length : comma;
+                String value = line.substring(i, stop).trim();
+                if (value.indexOf('"') >= 0) {
+                    throw new IllegalArgumentException("Unexpected quote in an unquoted field");
+                }
+                fields[count++] = value;
+                i = stop;
+            }
+            if (i == length) {
+                return count == FIELDS ? fields : Arrays.copyOf(fields, count);
+            }
+            i++; // the comma
+        }
+    }
+
+    private static void appendField(StringBuilder out, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (quote) {
+            out.append('"').append(value.replace("\"", "\"\"")).append('"');
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static boolean isHeader(String line) {
+        try {
+            Double.parseDouble(splitRow(line)[0]);
+            return false;
+        } catch (NumberFormatException e) {
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false; // a malformed row, reported as such
+        }
+    }
+
+    private record Chunk(String text, int rows, int failedRows) {
+    }
+
+    /**
+     * Writes chunks in the order they were read, waiting for each to be converted
+     */
+    private static final class OrderedWriter implements Runnable {
+        private final BlockingQueue<Future<Chunk>> pending;
+        private final Writer out;
+        private final AtomicReference<IOException> failure = new AtomicReference<>();
+        private long rows;
+        private long failedRows;
+
+        OrderedWriter(BlockingQueue<Future<Chunk>> pending, Writer out) {
+            this.pending = pending;
+            this.out = out;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Chunk chunk;
+                    try {
+                        chunk = pending.take().get();
+                    } catch (ExecutionException e) {
+                        failure.compareAndSet(null, new IOException("Conversion failed", e.getCause()));
+                        continue;
+                    }
+                    if (chunk == null) {
+                        return;
+                    }
+                    // After a failure keep taking chunks so the reader never blocks on a full queue
+                    if (failure.get() != null) {
+                        continue;
+                    }
+                    try {
+                        out.write(chunk.text);
+                        rows += chunk.rows;
+                        failedRows += chunk.failedRows;
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Headless entry point: {@code --convert <in.csv|-> <out.csv|-> [--threads N]}
+     *
+     * @return the process exit code
+     */
+    public static int run(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: --convert <in.csv|-> <out.csv|-> [--threads N]");
+            return 2;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length >= 4 && args[2].equals("--threads")) {
+            threads = Integer.parseInt(args[3]);
+        }
+
+        try (Reader in = args[0].equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+             Writer out = args[1].equals("-")
+                     ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024)
+                     : Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            Summary summary = new BatchConverter(RateSource.api(), threads).convert(in, out);
+            System.err.printf("Converted %d rows (%d failed) with rates of %d dates in %.2fs, %.0f rows/s%n",
+                    summary.rows(), summary.failedRows(), summary.dates(), summary.elapsedNanos() / 1e9,
+                    summary.rowsPerSecond());
+            return summary.failedRows() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Batch conversion failed: " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -19,7 +19,28 @@ public class Config {
         }
     }
 
+    /**
+     * A "fxflip." system property overrides the file, e.g. -Dfxflip.baseUrl=http://localhost:8089
+     */
     public static String get(String key) {
-        return properties.getProperty(key);
+        String override = System.getProperty("fxflip." + key);
+        return override != null ? override : properties.getProperty(key);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
     }
 }
\ No newline at end of file
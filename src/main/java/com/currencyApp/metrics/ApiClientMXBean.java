@@ -0,0 +1,28 @@
+package com.currencyApp.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the API client as a whole, registered as com.currencyApp:type=ApiClient
+ */
+public interface ApiClientMXBean {
+    int getCacheEntries();
+
+    long getCacheBytes();
+
+    double getCacheHitRatio();
+
+    long getCacheEvictions();
+
+    int getQueueDepth();
+
+    /**
+     * @return average time calls waited in the scheduler, by priority
+     */
+    Map<String, Double> getAverageWaitMillis();
+
+    /**
+     * @return circuit breaker state by endpoint
+     */
+    Map<String, String> getCircuitStates();
+}
@@ -0,0 +1,89 @@
+package com.currencyApp.metrics;
+
+import com.currencyApp.model.EndpointType;
+import com.currencyApp.model.ExchangeRateService;
+import com.currencyApp.util.RequestScheduler;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Publishes the API client's statistics over JMX, so they can be watched in JConsole or
+ * VisualVM next to the JVM's own: one ApiEndpoint bean per endpoint family and one ApiClient
+ * bean for the cache, the scheduler and the circuit breakers.
+ */
+public class ApiMetrics implements ApiClientMXBean {
+    private static final String DOMAIN = "com.currencyApp";
+    private static boolean registered;
+
+    private ApiMetrics() {
+    }
+
+    /**
+     * Registers the beans with the platform MBean server; later calls do nothing
+     */
+    public static synchronized void registerMBeans() {
+        if (registered) {
+            return;
+        }
+        registered = true;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new ApiMetrics(), new ObjectName(DOMAIN + ":type=ApiClient"));
+            for (EndpointType type : EndpointType.values()) {
+                server.registerMBean(ExchangeRateService.getMetrics(type),
+                        new ObjectName(DOMAIN + ":type=ApiEndpoint,name=" + type.name().toLowerCase(Locale.ROOT)));
+            }
+        } catch (JMException e) {
+            System.err.println("Could not register API metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public int getCacheEntries() {
+        return ExchangeRateService.getCache().size();
+    }
+
+    @Override
+    public long getCacheBytes() {
+        return ExchangeRateService.getCache().sizeInBytes();
+    }
+
+    @Override
+    public double getCacheHitRatio() {
+        return ExchangeRateService.getCache().getHitRatio();
+    }
+
+    @Override
+    public long getCacheEvictions() {
+        return ExchangeRateService.getCache().getEvictionCount();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return ExchangeRateService.getScheduler().getQueueDepth();
+    }
+
+    @Override
+    public Map<String, Double> getAverageWaitMillis() {
+        Map<String, Double> waits = new TreeMap<>();
+        for (RequestScheduler.Priority priority : RequestScheduler.Priority.values()) {
+            waits.put(priority.name(), ExchangeRateService.getScheduler().getAverageWaitMillis(priority));
+        }
+        return waits;
+    }
+
+    @Override
+    public Map<String, String> getCircuitStates() {
+        Map<String, String> states = new TreeMap<>();
+        for (EndpointType type : EndpointType.values()) {
+            states.put(type.name(), ExchangeRateService.getCircuitBreaker(type).getState().name());
+        }
+        return states;
+    }
+}
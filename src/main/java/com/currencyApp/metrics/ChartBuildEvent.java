@@ -0,0 +1,27 @@
+package com.currencyApp.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Building or updating the statistics chart
+ */
+@Name("com.currencyApp.ChartBuild")
+@Label("Chart Build")
+@Category({"FXFlip", "UI"})
+@StackTrace(false)
+public class ChartBuildEvent extends Event {
+    @Label("Pair")
+    @Description("Base currency and the charted targets, e.g. MAD/EUR,USD")
+    public String pair;
+
+    @Label("Series")
+    public int series;
+
+    @Label("Points")
+    public int points;
+}
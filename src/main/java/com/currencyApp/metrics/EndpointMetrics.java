@@ -0,0 +1,171 @@
+package com.currencyApp.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, payload and error statistics of one API endpoint family.
+ * Everything is recorded with striped counters and the lock-free {@link LatencyHistogram},
+ * so the client's threads never contend on it.
+ */
+public class EndpointMetrics implements EndpointMetricsMXBean {
+    private final String endpoint;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram decode = new LatencyHistogram();
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public EndpointMetrics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * A successfully decoded response
+     */
+    public void recordResponse(long latencyNanos, long decodeNanos, long bytes) {
+        responses.increment();
+        latency.recordNanos(latencyNanos);
+        decode.recordNanos(decodeNanos);
+        bytesReceived.add(bytes);
+    }
+
+    /**
+     * A response with an error status; its latency counts like any other response's
+     */
+    public void recordErrorResponse(int statusCode, long latencyNanos, long bytes) {
+        latency.recordNanos(latencyNanos);
+        bytesReceived.add(bytes);
+        recordError(String.valueOf(statusCode));
+    }
+
+    /**
+     * A call that failed without a usable response
+     *
+     * @param reason the failure kind, e.g. TIMEOUT or BAD_RESPONSE
+     */
+    public void recordError(String reason) {
+        errors.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+
+    public void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    public void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public LatencyHistogram getDecode() {
+        return decode;
+    }
+
+    @Override
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public long getResponseCount() {
+        return responses.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        long count = 0;
+        for (LongAdder adder : errors.values()) {
+            count += adder.sum();
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Long> getErrorsByStatus() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((reason, adder) -> counts.put(reason, adder.sum()));
+        return counts;
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    @Override
+    public double getLatencyMeanMillis() {
+        return latency.getMeanMillis();
+    }
+
+    @Override
+    public double getLatencyP50Millis() {
+        return latency.getPercentileMillis(50);
+    }
+
+    @Override
+    public double getLatencyP90Millis() {
+        return latency.getPercentileMillis(90);
+    }
+
+    @Override
+    public double getLatencyP99Millis() {
+        return latency.getPercentileMillis(99);
+    }
+
+    @Override
+    public double getLatencyMaxMillis() {
+        return latency.getMaxMillis();
+    }
+
+    @Override
+    public double getDecodeP50Millis() {
+        return decode.getPercentileMillis(50);
+    }
+
+    @Override
+    public double getDecodeP99Millis() {
+        return decode.getPercentileMillis(99);
+    }
+
+    @Override
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMissCount() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public double getCacheHitRatio() {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        decode.reset();
+        responses.reset();
+        bytesReceived.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+        errors.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EndpointMetrics[%s, responses=%d, errors=%d, p50=%.2fms, p99=%.2fms, bytes=%d, hitRatio=%.2f]",
+                endpoint, getResponseCount(), getErrorCount(), getLatencyP50Millis(), getLatencyP99Millis(),
+                getBytesReceived(), getCacheHitRatio());
+    }
+}
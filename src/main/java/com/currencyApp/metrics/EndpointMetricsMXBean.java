@@ -0,0 +1,45 @@
+package com.currencyApp.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of one API endpoint family, registered as com.currencyApp:type=ApiEndpoint,name=...
+ * Latency is the time from sending a request until its body is decoded; decode time is the part
+ * spent in the decoder, which includes waiting for the body to stream in.
+ */
+public interface EndpointMetricsMXBean {
+    String getEndpoint();
+
+    long getResponseCount();
+
+    long getErrorCount();
+
+    /**
+     * @return failed calls by HTTP status code, or by failure kind (e.g. TIMEOUT) when there was no response
+     */
+    Map<String, Long> getErrorsByStatus();
+
+    long getBytesReceived();
+
+    double getLatencyMeanMillis();
+
+    double getLatencyP50Millis();
+
+    double getLatencyP90Millis();
+
+    double getLatencyP99Millis();
+
+    double getLatencyMaxMillis();
+
+    double getDecodeP50Millis();
+
+    double getDecodeP99Millis();
+
+    long getCacheHitCount();
+
+    long getCacheMissCount();
+
+    double getCacheHitRatio();
+
+    void reset();
+}
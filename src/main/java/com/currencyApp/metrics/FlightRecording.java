@@ -0,0 +1,44 @@
+package com.currencyApp.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Records the JVM's own events together with the app's (fetch, decode, rate rebuild, chart and
+ * section builds) into a JFR file for the {@code --profile} flag, written when the process exits.
+ * Open the file in JDK Mission Control; the app's events are under "FXFlip".
+ */
+public class FlightRecording {
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Starts recording with the JDK's "profile" settings
+     *
+     * @param file where the recording is written, or null for fxflip-&lt;date-time&gt;.jfr in the working directory
+     */
+    public static void start(Path file) {
+        Path destination = file != null ? file
+                : Paths.get("fxflip-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("FXFlip");
+            recording.setToDisk(true);
+            recording.setDestination(destination);
+            // JFR's own shutdown hook stops the recording and writes it out, also after System.exit
+            recording.setDumpOnExit(true);
+            recording.start();
+            System.err.println("Recording to " + destination.toAbsolutePath());
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("Could not start the flight recording: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.currencyApp.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to the FastForex API, from sending the request until its body is decoded
+ */
+@Name("com.currencyApp.HttpFetch")
+@Label("HTTP Fetch")
+@Category({"FXFlip", "Network"})
+@StackTrace(false)
+public class HttpFetchEvent extends Event {
+    @Label("Endpoint")
+    @Description("Endpoint family, e.g. /historical")
+    public String endpoint;
+
+    @Label("Pair")
+    @Description("Currencies asked for, e.g. MAD/EUR, or only the base")
+    public String pair;
+
+    @Label("Status")
+    @Description("HTTP status, or 0 if no response arrived")
+    public int status;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long payloadSize;
+}
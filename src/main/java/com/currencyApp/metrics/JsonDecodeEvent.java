@@ -0,0 +1,28 @@
+package com.currencyApp.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Decoding of a response body, which streams in while it is read
+ */
+@Name("com.currencyApp.JsonDecode")
+@Label("JSON Decode")
+@Category({"FXFlip", "Network"})
+@StackTrace(false)
+public class JsonDecodeEvent extends Event {
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Pair")
+    public String pair;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long payloadSize;
+}
@@ -0,0 +1,106 @@
+package com.currencyApp.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ * Values are kept in microseconds; every power of two is split into 32 linear sub-buckets,
+ * so a percentile is never off by more than about 3%, using a fixed ~8 KB whatever the number
+ * of samples. Recording is a couple of atomic increments and safe from any thread.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // 2^36 µs is about 19 hours; anything longer is counted as that
+    private static final long MAX_MICROS = (1L << 36) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(MAX_MICROS) + 1);
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.min(MAX_MICROS, Math.max(0, nanos / 1000));
+        counts.incrementAndGet(indexOf(micros));
+        totalMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public double getMeanMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : totalMicros.sum() / 1000.0 / count;
+    }
+
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the value at or below which that share of the samples lie, or 0 without samples
+     */
+    public double getPercentileMillis(double percentile) {
+        long[] snapshot = new long[counts.length()];
+        long count = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalMicros.reset();
+        maxMicros.set(0);
+    }
+
+    /**
+     * Values below 64 get a bucket each; above that, the bucket width doubles with every power of two
+     */
+    static int indexOf(long micros) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (micros >>> shift);
+    }
+
+    /**
+     * @return the largest value that falls into the bucket
+     */
+    static long highestValueAt(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) ((index & (SUB_BUCKETS - 1)) + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LatencyHistogram[count=%d, p50=%.2fms, p99=%.2fms, max=%.2fms]",
+                getCount(), getPercentileMillis(50), getPercentileMillis(99), getMaxMillis());
+    }
+}
@@ -0,0 +1,30 @@
+package com.currencyApp.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Applying new rates to the cross-rate matrix, in place or by rebuilding it
+ */
+@Name("com.currencyApp.RateTableRebuild")
+@Label("Rate Table Rebuild")
+@Category({"FXFlip", "Compute"})
+@StackTrace(false)
+public class RateTableRebuildEvent extends Event {
+    @Label("Pair")
+    @Description("The base currency the rates are quoted against")
+    public String pair;
+
+    @Label("Currencies")
+    public int currencies;
+
+    @Label("Changed Rates")
+    public int changed;
+
+    @Label("Full Rebuild")
+    public boolean fullRebuild;
+}
@@ -0,0 +1,27 @@
+package com.currencyApp.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Replacing the nodes of one section of the window
+ */
+@Name("com.currencyApp.SectionRebuild")
+@Label("UI Section Rebuild")
+@Category({"FXFlip", "UI"})
+@StackTrace(false)
+public class SectionRebuildEvent extends Event {
+    @Label("Section")
+    public String section;
+
+    @Label("Pair")
+    public String pair;
+
+    @Label("Nodes")
+    @Description("Nodes the section holds afterwards")
+    public int nodes;
+}
@@ -0,0 +1,122 @@
+package com.currencyApp.model;
+
+/**
+ * Exchange rate between every pair of currencies of a {@link RateTable}, derived from its single
+ * base vector and kept in a flat N×N array, so looking up a pair is one array read.
+ * When a single base rate changes only its row and column are recomputed.
+ * <p>
+ * Updates must come from one thread (the FX thread in the app); readers on other threads may
+ * briefly see the old rate of a pair that is being updated.
+ */
+public class CrossRateMatrix {
+    private final RateTable table;
+    private final int size;
+    private final double[] cross; // cross[from * size + to] = units of "to" per one unit of "from"
+
+    /**
+     * @param table the base rates; the matrix works on its own copy, so the table itself (e.g. a cached
+     *              response) is never modified
+     */
+    public CrossRateMatrix(RateTable table) {
+        this.table = table.copy();
+        this.size = table.size();
+        this.cross = new double[size * size];
+        for (int from = 0; from < size; from++) {
+            updateRow(from);
+        }
+    }
+
+    /**
+     * @return units of the "to" currency per one unit of the "from" currency,
+     * or NaN if either base rate is missing or invalid
+     */
+    public double getRate(int fromId, int toId) {
+        return cross[fromId * size + toId];
+    }
+
+    /**
+     * @return units of the "to" currency per one unit of the "from" currency,
+     * or NaN if either currency is unknown or its base rate is invalid
+     */
+    public double getRate(String from, String to) {
+        int fromId = table.indexOf(from);
+        int toId = table.indexOf(to);
+        if (fromId < 0 || toId < 0) {
+            return Double.NaN;
+        }
+        return cross[fromId * size + toId];
+    }
+
+    /**
+     * Same as {@link #getRate(String, String)}, but says what is wrong instead of returning NaN
+     *
+     * @throws IllegalArgumentException if either currency is unknown or the rate is invalid
+     */
+    public double getCrossRate(String from, String to) {
+        int fromId = table.indexOf(from);
+        if (fromId < 0) {
+            throw new IllegalArgumentException("Rate not found for " + from);
+        }
+        int toId = table.indexOf(to);
+        if (toId < 0) {
+            throw new IllegalArgumentException("Rate not found for " + to);
+        }
+        double rate = cross[fromId * size + toId];
+        if (Double.isNaN(rate)) {
+            throw new IllegalArgumentException("Invalid exchange rate");
+        }
+        return rate;
+    }
+
+    /**
+     * Changes one base rate and recomputes the pairs that involve that currency
+     */
+    public void setBaseRate(int id, double rate) {
+        table.setRate(id, rate);
+        updateRow(id);
+        updateColumn(id);
+    }
+
+    /**
+     * @return the base rates the matrix is derived from; only read them, updates go through {@link #setBaseRate}
+     */
+    public RateTable getRateTable() {
+        return table;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void updateRow(int from) {
+        double fromRate = table.getRate(from);
+        int row = from * size;
+        if (!isValid(fromRate)) {
+            for (int to = 0; to < size; to++) {
+                cross[row + to] = Double.NaN;
+            }
+            return;
+        }
+        for (int to = 0; to < size; to++) {
+            double toRate = table.getRate(to);
+            cross[row + to] = isValid(toRate) ? toRate / fromRate : Double.NaN;
+        }
+    }
+
+    private void updateColumn(int to) {
+        double toRate = table.getRate(to);
+        boolean valid = isValid(toRate);
+        for (int from = 0; from < size; from++) {
+            double fromRate = table.getRate(from);
+            cross[from * size + to] = valid && isValid(fromRate) ? toRate / fromRate : Double.NaN;
+        }
+    }
+
+    private static boolean isValid(double rate) {
+        return rate > 0 && rate < Double.POSITIVE_INFINITY;
+    }
+}
@@ -1,14 +1,17 @@
 package com.currencyApp.model;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonElement;
+import com.currencyApp.util.RequestScheduler.Priority;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class Currency {
-    private static final Gson gson = new Gson();
+    // How far back the change badge looks for the two days it compares
+    private static final int QUOTE_LOOKBACK_DAYS = 7;
 
     private String code;
     private String name;
@@ -40,101 +43,320 @@ public class Currency {
         return code; // Show code in ComboBox
     }
 
-    public static List<Currency> getCurrencyListFromAPI() {
-        String endpoint = "/currencies?";
-        String jsonString = ExchangeRateService.getResponse(endpoint); // Need to ensure this class exists
-        JsonObject json = gson.fromJson(jsonString, JsonObject.class);
-        JsonObject currenciesJson = json.getAsJsonObject("currencies");
-
+    /**
+     * Streams a /currencies response into Currency objects: {"currencies": {"AED": "UAE Dirham", ...}}
+     */
+    public static final ResponseDecoder<List<Currency>> CURRENCY_LIST_DECODER = body -> {
         List<Currency> currencyList = new ArrayList<>();
-
-        for (Map.Entry<String, JsonElement> entry : currenciesJson.entrySet()) {
-            String code = entry.getKey();
-            String name = entry.getValue().getAsString();
-            currencyList.add(new Currency(code, name));
+        JsonReader reader = new JsonReader(body);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("currencies")) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String code = reader.nextName();
+                    currencyList.add(new Currency(code, reader.nextString()));
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
         }
-
+        reader.endObject();
         return currencyList;
-    }
-
-    public static List<Currency> getCurrencyRatesFromAPI() {
-        String endpoint = "/fetch-all?from=MAD&";
-        String jsonString = ExchangeRateService.getResponse(endpoint);
-        JsonObject json = gson.fromJson(jsonString, JsonObject.class);
-        JsonObject currenciesJson = json.getAsJsonObject("results");
-
-        List<Currency> currencyList = new ArrayList<>();
-
-        for (Map.Entry<String, JsonElement> entry : currenciesJson.entrySet()) {
-            String currencyCode = entry.getKey();
-            String rateStr = entry.getValue().getAsString();
-            try {
-                double rate = Double.parseDouble(rateStr);
-                Currency currencyObj = new Currency(currencyCode, "");
-                currencyObj.setRate(rate);
-                currencyList.add(currencyObj);
-            } catch (NumberFormatException e) {
-                System.err.println("Invalid rate format for " + currencyCode + ": " + rateStr);
+    };
+
+    /**
+     * Streams a /fetch-all response straight into a RateTable: {"base": "MAD", "results": {"AED": 0.39, ...}}
+     */
+    public static final ResponseDecoder<RateTable> RATE_TABLE_DECODER = body -> {
+        RateTable.Builder table = new RateTable.Builder();
+        String base = "";
+        JsonReader reader = new JsonReader(body);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("base")) {
+                base = reader.nextString();
+            } else if (name.equals("results")) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String currencyCode = reader.nextName();
+                    double rate = readRate(reader, currencyCode);
+                    if (!Double.isNaN(rate)) {
+                        table.put(currencyCode, rate);
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return table.build(base);
+    };
+
+    /**
+     * Streams a /historical response into currency -> rate: {"results": {"AED": 0.39, ...}}
+     */
+    public static final ResponseDecoder<Map<String, Double>> HISTORICAL_DECODER = body -> {
+        Map<String, Double> rates = new HashMap<>();
+        JsonReader reader = new JsonReader(body);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("results")) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String currencyCode = reader.nextName();
+                    double rate = readRate(reader, currencyCode);
+                    if (!Double.isNaN(rate)) {
+                        rates.put(currencyCode, rate);
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return rates;
+    };
+
+    /**
+     * Streams a /time-series response into currency -> date -> rate, with dates sorted:
+     * {"results": {"USD": {"2025-05-01": 0.108, ...}}}
+     */
+    public static final ResponseDecoder<Map<String, Map<String, Double>>> TIME_SERIES_DECODER = body -> {
+        Map<String, Map<String, Double>> series = new HashMap<>();
+        JsonReader reader = new JsonReader(body);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("results")) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String currencyCode = reader.nextName();
+                    Map<String, Double> dateRateMap = new TreeMap<>(); // Sorted by date
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String date = reader.nextName();
+                        double rate = readRate(reader, currencyCode);
+                        if (!Double.isNaN(rate)) {
+                            dateRateMap.put(date, rate);
+                        }
+                    }
+                    reader.endObject();
+                    series.put(currencyCode, dateRateMap);
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return series;
+    };
+
+    /**
+     * Streams a /time-series response straight into one RateSeries per currency, without boxing:
+     * {"base": "MAD", "results": {"USD": {"2025-05-01": 0.108, ...}}}
+     */
+    public static final ResponseDecoder<List<RateSeries>> RATE_SERIES_DECODER = body -> {
+        List<String> targets = new ArrayList<>();
+        List<int[]> days = new ArrayList<>();
+        List<double[]> rates = new ArrayList<>();
+        String base = "";
+        JsonReader reader = new JsonReader(body);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("base")) {
+                base = reader.nextString();
+            } else if (name.equals("results")) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String currencyCode = reader.nextName();
+                    int[] epochDays = new int[16];
+                    double[] dayRates = new double[16];
+                    int size = 0;
+                    boolean sorted = true;
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        int day = (int) LocalDate.parse(reader.nextName()).toEpochDay();
+                        double rate = readRate(reader, currencyCode);
+                        if (Double.isNaN(rate)) {
+                            continue;
+                        }
+                        if (size == epochDays.length) {
+                            epochDays = Arrays.copyOf(epochDays, size * 2);
+                            dayRates = Arrays.copyOf(dayRates, size * 2);
+                        }
+                        sorted &= size == 0 || day > epochDays[size - 1];
+                        epochDays[size] = day;
+                        dayRates[size] = rate;
+                        size++;
+                    }
+                    reader.endObject();
+                    if (!sorted) {
+                        sortByDay(epochDays, dayRates, size);
+                    }
+                    targets.add(currencyCode);
+                    days.add(Arrays.copyOf(epochDays, size));
+                    rates.add(Arrays.copyOf(dayRates, size));
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
             }
         }
+        reader.endObject();
 
-        return currencyList;
+        // The base may come after the results
+        List<RateSeries> series = new ArrayList<>(targets.size());
+        for (int i = 0; i < targets.size(); i++) {
+            series.add(new RateSeries(base, targets.get(i), days.get(i), rates.get(i)));
+        }
+        return series;
+    };
+
+    /**
+     * Insertion sort of the first size points by day; the API sends them in order, so this is a fallback
+     */
+    private static void sortByDay(int[] epochDays, double[] rates, int size) {
+        for (int i = 1; i < size; i++) {
+            int day = epochDays[i];
+            double rate = rates[i];
+            int j = i - 1;
+            while (j >= 0 && epochDays[j] > day) {
+                epochDays[j + 1] = epochDays[j];
+                rates[j + 1] = rates[j];
+                j--;
+            }
+            epochDays[j + 1] = day;
+            rates[j + 1] = rate;
+        }
     }
 
-    public static Map<String, Map<String, Object>> getTodayRates_OneCurrency(String baseCurrency, String targetCurrency) {
-        LocalDate today = LocalDate.now();
-        LocalDate yesterday = today.minusDays(1);
-        LocalDate secondDayBefore = today.minusDays(2);
-
-        String endpoint = String.format("/time-series?from=%s&to=%s&start=%s&end=%s&",
-                baseCurrency, targetCurrency, secondDayBefore.toString(), yesterday.toString());
-
-        Map<String, Float> todayRates = new HashMap<>();
-        Map<String, String> rateChanges = new HashMap<>();
-        Map<String, Boolean> changeDirections = new HashMap<>();
+    /**
+     * @return the series of the target currency against the base that was asked for, or null if the
+     * response has none
+     */
+    private static RateSeries findSeries(List<RateSeries> series, String baseCurrency, String targetCurrency) {
+        for (RateSeries rates : series) {
+            if (!rates.getTarget().equals(targetCurrency)) {
+                continue;
+            }
+            if (rates.getBase().equals(baseCurrency)) {
+                return rates;
+            }
+            // A response without "base"; it still answers for the base in the request
+            int[] epochDays = new int[rates.size()];
+            double[] values = new double[rates.size()];
+            for (int i = 0; i < rates.size(); i++) {
+                epochDays[i] = rates.getEpochDay(i);
+                values[i] = rates.getRate(i);
+            }
+            return new RateSeries(baseCurrency, targetCurrency, epochDays, values);
+        }
+        return null;
+    }
 
+    /**
+     * Reads a rate that may be sent as a number or a numeric string
+     *
+     * @return the rate, or NaN if it is not a number
+     */
+    private static double readRate(JsonReader reader, String currencyCode) throws IOException {
+        if (reader.peek() == JsonToken.NUMBER) {
+            return reader.nextDouble();
+        }
+        String rateStr = reader.nextString();
         try {
-            String response = ExchangeRateService.getResponse(endpoint);
-            JsonObject json = gson.fromJson(response, JsonObject.class);
-
-            // Verify we got results for the requested currency pair
-            if (!json.has("results") || !json.getAsJsonObject("results").has(targetCurrency)) {
-                throw new RuntimeException("No data available for " + baseCurrency + " to " + targetCurrency);
-            }
+            return Double.parseDouble(rateStr);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid rate format for " + currencyCode + ": " + rateStr);
+            return Double.NaN;
+        }
+    }
 
-            JsonObject currencyData = json.getAsJsonObject("results").getAsJsonObject(targetCurrency);
+    public static List<Currency> getCurrencyListFromAPI() {
+        String endpoint = "/currencies?";
+        return ExchangeRateService.getResponse(endpoint, CURRENCY_LIST_DECODER);
+    }
 
-            // Get rates for both days
-            float yesterdayRate = currencyData.get(yesterday.toString()).getAsFloat();
-            float dayBeforeRate = currencyData.get(secondDayBefore.toString()).getAsFloat();
+    public static RateTable getCurrencyRatesFromAPI() {
+        String endpoint = "/fetch-all?from=MAD&";
+        return ExchangeRateService.getResponse(endpoint, RATE_TABLE_DECODER);
+    }
 
-            // Store the current rate
-            todayRates.put(targetCurrency, yesterdayRate);
+    /**
+     * Non-blocking variant of {@link #getCurrencyRatesFromAPI} that reports failures through the future
+     * instead of an error dialog, for background polling
+     */
+    public static CompletableFuture<RateTable> getCurrencyRatesFromAPIAsync() {
+        String endpoint = "/fetch-all?from=MAD&";
+        return ExchangeRateService.getResponseAsync(endpoint, RATE_TABLE_DECODER, Priority.BACKGROUND);
+    }
 
-            // Calculate percentage change
-            float change = ((yesterdayRate - dayBeforeRate) / dayBeforeRate) * 100f;
-            boolean isChangePositive = yesterdayRate >= dayBeforeRate;
-            String formattedChange = String.format("%.2f%%", Math.abs(change));
+    /**
+     * Same as {@link #getCurrencyRatesFromAPIAsync}, but bypasses the cached /fetch-all response, so a
+     * poll more frequent than its TTL ("cache.ttl.fetchAll") still sees new rates
+     */
+    public static CompletableFuture<RateTable> pollCurrencyRatesAsync() {
+        String endpoint = "/fetch-all?from=MAD&";
+        return ExchangeRateService.getFreshResponseAsync(endpoint, RATE_TABLE_DECODER, Priority.BACKGROUND);
+    }
 
-            // Store the change information
-            rateChanges.put(targetCurrency, formattedChange);
-            changeDirections.put(targetCurrency, isChangePositive);
+    /**
+     * Rates of every currency against MAD at the close of the given day, as a RateTable;
+     * used for batch conversions of dated rows
+     */
+    public static CompletableFuture<RateTable> getRatesOnAsync(LocalDate date) {
+        String endpoint = String.format("/historical?date=%s&from=MAD&", date);
+        return ExchangeRateService.getResponseAsync(endpoint, RATE_TABLE_DECODER, Priority.BACKGROUND);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            // Consider rethrowing or handling the error appropriately
-        }
+    /**
+     * @return the latest rate of the pair and its change against the day before, or null if it is unavailable
+     */
+    public static PairQuote getTodayRates_OneCurrency(String baseCurrency, String targetCurrency) {
+        return getTodayRates_OneCurrencyAsync(baseCurrency, targetCurrency).join();
+    }
 
-        // Prepare the result map
-        Map<String, Map<String, Object>> result = new HashMap<>();
-        result.put("rates", new HashMap<>(todayRates));
-        result.put("changes", new HashMap<>(rateChanges));
-        result.put("directions", new HashMap<>(changeDirections));
+    /**
+     * Non-blocking variant of {@link #getTodayRates_OneCurrency}.
+     * Days the API has no rate for (e.g. weekends for some pairs) fall back to the nearest earlier day,
+     * so the request reaches a few days further back than the two days compared.
+     * Cancelling the returned future drops the result without affecting other callers of the same endpoint.
+     *
+     * @return future failing if the pair has no two days to compare
+     */
+    public static CompletableFuture<PairQuote> getTodayRates_OneCurrencyAsync(String baseCurrency, String targetCurrency) {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate secondDayBefore = yesterday.minusDays(1);
 
-        return result;
+        String endpoint = String.format("/time-series?from=%s&to=%s&start=%s&end=%s&",
+                baseCurrency, targetCurrency, yesterday.minusDays(QUOTE_LOOKBACK_DAYS), yesterday);
+
+        return ExchangeRateService.getResponseAsync(endpoint, RATE_SERIES_DECODER, Priority.INTERACTIVE)
+                .thenApply(series -> {
+                    RateSeries rates = series == null ? null : findSeries(series, baseCurrency, targetCurrency);
+                    if (rates == null) {
+                        throw new IllegalStateException("No data available for " + baseCurrency + " to " + targetCurrency);
+                    }
+                    int latest = rates.indexOnOrBefore((int) yesterday.toEpochDay());
+                    int previous = latest < 0 ? -1
+                            : Math.min(rates.indexOnOrBefore((int) secondDayBefore.toEpochDay()), latest - 1);
+                    if (previous < 0) {
+                        throw new IllegalStateException("Not enough days to compare " + baseCurrency + " to " + targetCurrency);
+                    }
+                    return PairQuote.of(baseCurrency, targetCurrency, (float) rates.getRate(latest), (float) rates.getRate(previous));
+                });
     }
 
-    public static Map<String, Map<String, Object>> getTodayRatesAnd24hChange_AllCurrencies(String baseCurrency) {
+    /**
+     * Latest rate and 24h change of every currency against the base currency
+     */
+    public static QuoteBatch getTodayRatesAnd24hChange_AllCurrencies(String baseCurrency) {
         LocalDate today = LocalDate.now();
         LocalDate yesterday = today.minusDays(1);
         LocalDate secondDayBefore = today.minusDays(2);
@@ -142,89 +364,147 @@ public class Currency {
         String endpointToday = String.format("/historical?date=%s&from=%s&", yesterday.toString(), baseCurrency);
         String endpointYesterday = String.format("/historical?date=%s&from=%s&", secondDayBefore.toString(), baseCurrency);
 
-        Map<String, Float> todayRates = new HashMap<>();
-        Map<String, String> rateChanges = new HashMap<>();
-        Map<String, Boolean> changeDirections = new HashMap<>();
+        QuoteBatch.Builder quotes = new QuoteBatch.Builder();
 
         try {
-            String todayResponse = ExchangeRateService.getResponse(endpointToday);
-            String yesterdayResponse = ExchangeRateService.getResponse(endpointYesterday);
+            // Both days are requested at once and decoded as they stream in
+            CompletableFuture<Map<String, Double>> todayResponse =
+                    ExchangeRateService.getResponseAsync(endpointToday, HISTORICAL_DECODER);
+            CompletableFuture<Map<String, Double>> yesterdayResponse =
+                    ExchangeRateService.getResponseAsync(endpointYesterday, HISTORICAL_DECODER);
 
-            JsonObject todayJson = gson.fromJson(todayResponse, JsonObject.class);
-            JsonObject yesterdayJson = gson.fromJson(yesterdayResponse, JsonObject.class);
+            Map<String, Double> todayConversions = todayResponse.join();
+            Map<String, Double> yesterdayConversions = yesterdayResponse.join();
 
-            JsonObject todayConversions = todayJson.getAsJsonObject("results");
-            JsonObject yesterdayConversions = yesterdayJson.getAsJsonObject("results");
-
-            Set<Map.Entry<String, JsonElement>> entries = todayConversions.entrySet();
-            for (Map.Entry<String, JsonElement> entry : entries) {
+            for (Map.Entry<String, Double> entry : todayConversions.entrySet()) {
                 String currency = entry.getKey();
-                float todayRate = entry.getValue().getAsFloat();
-                float yesterdayRate = yesterdayConversions.has(currency)
-                        ? yesterdayConversions.get(currency).getAsFloat()
-                        : todayRate;
-
-                todayRates.put(currency, todayRate);
-
-                float change = ((todayRate - yesterdayRate) / yesterdayRate) * 100f;
-                boolean isChangePositive = todayRate >= yesterdayRate;
-                String formattedChange = String.format("%.2f%%", Math.abs(change));
+                float todayRate = entry.getValue().floatValue();
+                Double yesterdayValue = yesterdayConversions.get(currency);
+                float yesterdayRate = yesterdayValue != null ? yesterdayValue.floatValue() : todayRate;
 
-                rateChanges.put(currency, formattedChange);
-                changeDirections.put(currency, isChangePositive);
+                quotes.add(baseCurrency, currency, todayRate, yesterdayRate);
             }
 
         } catch (Exception e) {
             e.printStackTrace();
         }
 
-        Map<String, Map<String, Object>> result = new HashMap<>();
-        result.put("rates", (Map<String, Object>) (Map<?, ?>) todayRates);
-        result.put("changes", (Map<String, Object>) (Map<?, ?>) rateChanges);
-        result.put("directions", (Map<String, Object>) (Map<?, ?>) changeDirections);
-
-        return result;
+        return quotes.build();
     }
 
-    public static Map<String, Map<String, Object>> getChangesInPast14days(String baseCurrency, String targetCurrency) {
-        Map<String, Map<String, Object>> result = new HashMap<>();
-
+    /**
+     * Today's rate and 24h change of several currencies against one target currency,
+     * e.g. EUR/MAD, USD/MAD and SAR/MAD. Instead of one /time-series call per pair this takes two
+     * /historical calls quoted from the target currency and inverts them.
+     *
+     * @param baseCurrencies the currencies to quote
+     * @param targetCurrency the currency they are quoted in
+     */
+    public static QuoteBatch getTodayRates_ManyCurrencies(Collection<String> baseCurrencies, String targetCurrency) {
         LocalDate today = LocalDate.now();
         LocalDate yesterday = today.minusDays(1);
-        LocalDate day15Before = today.minusDays(14);
+        LocalDate secondDayBefore = today.minusDays(2);
 
-        String endpoint = String.format(
-                "/time-series?from=%s&to=%s&start=%s&end=%s&",
-                baseCurrency, targetCurrency, day15Before, yesterday
-        );
+        String endpointToday = String.format("/historical?date=%s&from=%s&", yesterday.toString(), targetCurrency);
+        String endpointYesterday = String.format("/historical?date=%s&from=%s&", secondDayBefore.toString(), targetCurrency);
+
+        QuoteBatch.Builder quotes = new QuoteBatch.Builder();
 
         try {
-            String response = ExchangeRateService.getResponse(endpoint); // implement this yourself
-            JsonObject json = gson.fromJson(response, JsonObject.class);
+            CompletableFuture<Map<String, Double>> todayResponse =
+                    ExchangeRateService.getResponseAsync(endpointToday, HISTORICAL_DECODER);
+            CompletableFuture<Map<String, Double>> yesterdayResponse =
+                    ExchangeRateService.getResponseAsync(endpointYesterday, HISTORICAL_DECODER);
+
+            Map<String, Double> todayConversions = todayResponse.join();
+            Map<String, Double> yesterdayConversions = yesterdayResponse.join();
+
+            for (String currency : baseCurrencies) {
+                Double todayInverse = todayConversions.get(currency);
+                Double yesterdayInverse = yesterdayConversions.get(currency);
+                if (todayInverse == null || yesterdayInverse == null || todayInverse == 0 || yesterdayInverse == 0) {
+                    System.err.println("No data available for " + currency + " to " + targetCurrency);
+                    continue;
+                }
 
-            // Add base currency
-            String base = json.get("base").getAsString();
-            result.put("base", Map.of("code", base));  // You can customize this if needed
+                // The API quotes target -> currency, so currency -> target is the reciprocal
+                float todayRate = (float) (1 / todayInverse);
+                float yesterdayRate = (float) (1 / yesterdayInverse);
 
-            // Add currency time-series data
-            JsonObject results = json.getAsJsonObject("results");
+                quotes.add(currency, targetCurrency, todayRate, yesterdayRate);
+            }
 
-            for (Map.Entry<String, JsonElement> currencyEntry : results.entrySet()) {
-                String currency = currencyEntry.getKey(); // e.g., "USD"
-                JsonObject dateRateObject = currencyEntry.getValue().getAsJsonObject();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
 
-                Map<String, Object> dateRateMap = new TreeMap<>(); // Sorted by date
-                for (Map.Entry<String, JsonElement> rateEntry : dateRateObject.entrySet()) {
-                    dateRateMap.put(rateEntry.getKey(), rateEntry.getValue().getAsDouble());
-                }
+        return quotes.build();
+    }
 
-                result.put(currency, dateRateMap);
-            }
+    /**
+     * Daily rates of the pair over the past 14 days
+     *
+     * @return the series, or null if it could not be fetched
+     */
+    public static RateSeries getChangesInPast14days(String baseCurrency, String targetCurrency) {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        return getRatesBetween(baseCurrency, targetCurrency, yesterday.minusDays(13), yesterday);
+    }
 
+    /**
+     * Daily rates of the pair from start to end inclusive, fetched as background work
+     *
+     * @return the series, or null if it could not be fetched
+     */
+    public static RateSeries getRatesBetween(String baseCurrency, String targetCurrency, LocalDate start, LocalDate end) {
+        String endpoint = String.format(
+                "/time-series?from=%s&to=%s&start=%s&end=%s&",
+                baseCurrency, targetCurrency, start, end
+        );
+
+        try {
+            List<RateSeries> series = ExchangeRateService.getResponse(endpoint, RATE_SERIES_DECODER, Priority.BACKGROUND);
+            return series == null ? null : findSeries(series, baseCurrency, targetCurrency);
         } catch (Exception e) {
             e.printStackTrace();
+            return null;
         }
+    }
 
-        return result;
+    /**
+     * Brings the stored history of the pair up to yesterday and back to the start of the window.
+     * Only the days after the last stored one are requested (usually a single day), or the whole
+     * window when the pair has nothing recent; days of the window older than the first stored one
+     * are requested as well.
+     *
+     * @param windowDays how many days back the history should reach
+     * @return number of days that were fetched and merged, 0 if the history was already complete
+     * or the fetch failed
+     */
+    public static int updateHistory(RateHistory history, String baseCurrency, String targetCurrency, int windowDays) {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        long windowStart = yesterday.toEpochDay() - (windowDays - 1);
+        long lastDay = history.getLastDay(baseCurrency, targetCurrency);
+        long firstDay = history.getFirstDay(baseCurrency, targetCurrency);
+
+        int added = 0;
+        long firstMissing = Math.max(windowStart, lastDay + 1);
+        if (firstMissing <= yesterday.toEpochDay()) {
+            added += fetchInto(history, baseCurrency, targetCurrency, firstMissing, yesterday.toEpochDay());
+        }
+        // Older days the window reaches that were never stored, when the newer ones above did not cover them
+        if (windowStart < firstDay && firstMissing > windowStart) {
+            added += fetchInto(history, baseCurrency, targetCurrency, windowStart, Math.min(firstDay, firstMissing) - 1);
+        }
+        return added;
+    }
+
+    private static int fetchInto(RateHistory history, String baseCurrency, String targetCurrency, long fromDay, long toDay) {
+        RateSeries missing = getRatesBetween(baseCurrency, targetCurrency, LocalDate.ofEpochDay(fromDay), LocalDate.ofEpochDay(toDay));
+        if (missing == null || missing.isEmpty()) {
+            return 0;
+        }
+        history.merge(missing);
+        return missing.size();
     }
 }
@@ -0,0 +1,42 @@
+package com.currencyApp.model;
+
+/**
+ * The FastForex endpoint families used by the app.
+ * Lets caching, scheduling and metrics treat all calls to one endpoint the same way
+ * regardless of their query parameters.
+ */
+public enum EndpointType {
+    CURRENCIES("/currencies"),
+    FETCH_ALL("/fetch-all"),
+    HISTORICAL("/historical"),
+    TIME_SERIES("/time-series"),
+    OTHER("");
+
+    private final String path;
+
+    EndpointType(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Resolves the endpoint family of a relative endpoint such as "/historical?date=...&from=MAD&"
+     *
+     * @param endPoint the endpoint including its query string
+     * @return the matching type, or OTHER if unknown
+     */
+    public static EndpointType of(String endPoint) {
+        if (endPoint != null) {
+            for (EndpointType type : values()) {
+                if (type != OTHER && endPoint.startsWith(type.path)
+                        && (endPoint.length() == type.path.length() || endPoint.charAt(type.path.length()) == '?')) {
+                    return type;
+                }
+            }
+        }
+        return OTHER;
+    }
+}
@@ -1,21 +1,50 @@
 package com.currencyApp.model;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URI;
 import com.currencyApp.config.Config;
+import com.currencyApp.metrics.EndpointMetrics;
+import com.currencyApp.metrics.HttpFetchEvent;
+import com.currencyApp.metrics.JsonDecodeEvent;
+import com.currencyApp.util.CircuitBreaker;
+import com.currencyApp.util.RequestScheduler;
+import com.currencyApp.util.RequestScheduler.Priority;
+import com.currencyApp.util.SingleFlight;
 
-import javax.swing.JOptionPane;
-import javax.swing.SwingUtilities;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.ConnectException;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Handles API responses from an exchange rate service
- * Visual error reporting via dialogs
+ * Handles API responses from an exchange rate service.
+ * Transient failures are retried with jittered exponential backoff, an endpoint that keeps failing
+ * is short-circuited for a while, and an expired cached response is served when nothing fresher
+ * can be had. Failures are reported once per call to the {@link ErrorListener}.
  */
 public class ExchangeRateService {
     private static final String BASE_URL = Config.get("baseUrl");
@@ -23,133 +52,615 @@ public class ExchangeRateService {
     private static final int CONNECTION_TIMEOUT = 10000; // 10 seconds
     private static final int READ_TIMEOUT = 15000; // 15 seconds
 
+    // One client for the whole app so connections (and HTTP/2 streams) are reused between calls
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(CONNECTION_TIMEOUT))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    // Response bodies are decoded here, off the client's selector threads
+    private static final ExecutorService DECODE_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fxflip-decode");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Identical requests made while a call is still running share that call
+    private static final SingleFlight<RequestKey, Object> IN_FLIGHT = new SingleFlight<>();
+
+    // Decoded responses; see ttlFor for how long each kind of endpoint stays valid.
+    // Expired ones are kept for "cache.staleSeconds" to fall back on when the API is down.
+    private static final ResponseCache<RequestKey, Object> CACHE = new ResponseCache<>(
+            Config.getInt("cache.maxEntries", 512),
+            Config.getLong("cache.maxBytes", 8L * 1024 * 1024),
+            Config.getLong("cache.staleSeconds", 86400) * 1000);
+
+    private static final int MAX_ATTEMPTS = Config.getInt("retry.maxAttempts", 3);
+    private static final long RETRY_BASE_DELAY = Config.getLong("retry.baseDelayMillis", 250);
+    private static final long RETRY_MAX_DELAY = Config.getLong("retry.maxDelayMillis", 4000);
+
+    // One breaker per endpoint family, so a broken /time-series does not block /fetch-all
+    private static final Map<EndpointType, CircuitBreaker> BREAKERS = new EnumMap<>(EndpointType.class);
+
+    // Latency, payload, error and cache statistics per endpoint family
+    private static final Map<EndpointType, EndpointMetrics> METRICS = new EnumMap<>(EndpointType.class);
+
+    static {
+        for (EndpointType type : EndpointType.values()) {
+            BREAKERS.put(type, new CircuitBreaker(
+                    Config.getInt("breaker.failureThreshold", 5),
+                    Config.getLong("breaker.openSeconds", 30) * 1000));
+            METRICS.put(type, new EndpointMetrics(type == EndpointType.OTHER ? "other" : type.getPath()));
+        }
+    }
+
+    private static volatile ErrorListener errorListener = (endpoint, error, servedStale) ->
+            System.err.println("Error calling " + endpoint.getPath() + ": " + error.getMessage()
+                    + (servedStale ? " (served from cache)" : ""));
+
+    // Keeps the app inside the plan's quota; interactive calls jump ahead of background ones
+    private static final RequestScheduler SCHEDULER = new RequestScheduler(
+            Config.getInt("quota.requestsPerMinute", 60) / 60.0,
+            Config.getInt("quota.burst", 10),
+            Config.getInt("quota.maxConcurrent", 4));
+
+    /**
+     * Identifies a request by its endpoint and the decoder its body is read with
+     */
+    public record RequestKey(String endPoint, ResponseDecoder<?> decoder) {
+    }
+
+    /**
+     * Receives failed calls, e.g. to show them in the status bar
+     */
+    public interface ErrorListener {
+        /**
+         * Called once per failed call, however many callers shared it, on the thread that saw it fail
+         *
+         * @param servedStale true if an expired cached response was returned instead
+         */
+        void onError(EndpointType endpoint, ApiException error, boolean servedStale);
+    }
+
     /**
      * Custom exception class for API-related errors
      */
     public static class ApiException extends Exception {
+        /**
+         * What went wrong, which decides whether the call is worth retrying
+         */
+        public enum Kind {
+            NETWORK(true),
+            TIMEOUT(true),
+            RATE_LIMITED(true),
+            SERVER_ERROR(true),
+            CLIENT_ERROR(false),
+            BAD_RESPONSE(false),
+            CIRCUIT_OPEN(false),
+            UNEXPECTED(false);
+
+            private final boolean transientFailure;
+
+            Kind(boolean transientFailure) {
+                this.transientFailure = transientFailure;
+            }
+
+            public static Kind ofStatus(int statusCode) {
+                if (statusCode == 429) {
+                    return RATE_LIMITED;
+                } else if (statusCode == 408) {
+                    return TIMEOUT;
+                }
+                return statusCode >= 500 ? SERVER_ERROR : CLIENT_ERROR;
+            }
+        }
+
+        private static final long serialVersionUID = 1L;
+
+        private final Kind kind;
         private final int statusCode;
 
-        public ApiException(String message) {
+        public ApiException(Kind kind, String message) {
             super(message);
+            this.kind = kind;
             this.statusCode = 0;
         }
 
         public ApiException(String message, int statusCode) {
             super(message);
+            this.kind = Kind.ofStatus(statusCode);
             this.statusCode = statusCode;
         }
 
+        public Kind getKind() {
+            return kind;
+        }
+
         public int getStatusCode() {
             return statusCode;
         }
+
+        /**
+         * @return true if the same call may succeed when tried again shortly
+         */
+        public boolean isTransient() {
+            return kind.transientFailure;
+        }
+    }
+
+    /**
+     * Replaces the listener failed calls are reported to; the default one logs to stderr
+     */
+    public static void setErrorListener(ErrorListener listener) {
+        errorListener = listener;
     }
 
     /**
-     * Fetches data from the exchange rate API
+     * Fetches data from the exchange rate API, blocking until the response arrives.
+     * Thin facade over {@link #getResponseAsync(String)} for existing callers.
      *
      * @param endPoint the API endpoint to call
-     * @return JSON response as a string
-     * @throws ApiException if there are any issues with the API call
+     * @return JSON response as a string, or null if the call failed
      */
     public static String getResponse(String endPoint) {
+        return getResponse(endPoint, ResponseDecoder.STRING);
+    }
+
+    /**
+     * Fetches and decodes data from the exchange rate API, blocking until it is available
+     *
+     * @param endPoint the API endpoint to call
+     * @param decoder  reads the response body into the target structure
+     * @return the decoded response, or null if the call failed
+     */
+    public static <T> T getResponse(String endPoint, ResponseDecoder<T> decoder) {
+        return getResponse(endPoint, decoder, Priority.NORMAL);
+    }
+
+    /**
+     * Fetches and decodes data from the exchange rate API, blocking until it is available
+     *
+     * @param endPoint the API endpoint to call
+     * @param decoder  reads the response body into the target structure
+     * @param priority how urgently the call should be made if the quota is running low
+     * @return the decoded response, or null if the call failed; the failure has been reported to the
+     * {@link ErrorListener} by then
+     */
+    public static <T> T getResponse(String endPoint, ResponseDecoder<T> decoder, Priority priority) {
         try {
-            return fetchDataFromApi(endPoint);
-        } catch (ApiException e) {
-            showErrorDialog("API Error", "Error calling exchange rate service: " + e.getMessage() +
-                    (e.getStatusCode() > 0 ? " (Status code: " + e.getStatusCode() + ")" : ""));
+            return getResponseAsync(endPoint, decoder, priority).join();
+        } catch (CompletionException e) {
             return null;
-        } catch (Exception e) {
-            showErrorDialog("Unexpected Error", "An unexpected error occurred: " + e.getMessage());
-            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Fetches data from the exchange rate API without blocking the caller.
+     *
+     * @param endPoint the API endpoint to call
+     * @return future completed with the JSON response, or exceptionally with an {@link ApiException}
+     */
+    public static CompletableFuture<String> getResponseAsync(String endPoint) {
+        return getResponseAsync(endPoint, ResponseDecoder.STRING);
+    }
+
+    /**
+     * Fetches data from the exchange rate API without blocking the caller, decoding the body
+     * while it streams in instead of buffering it into a String first.
+     * Concurrent calls share the client's connection pool and are multiplexed over HTTP/2,
+     * and concurrent calls for the same endpoint and decoder are coalesced into a single request.
+     * Decoded responses are served from the cache while they are still valid, and after they expired
+     * if the call fails for good.
+     *
+     * @param endPoint the API endpoint to call
+     * @param decoder  reads the response body into the target structure
+     * @return future completed with the decoded response, or exceptionally with an {@link ApiException}
+     */
+    public static <T> CompletableFuture<T> getResponseAsync(String endPoint, ResponseDecoder<T> decoder) {
+        return getResponseAsync(endPoint, decoder, Priority.NORMAL);
+    }
+
+    /**
+     * Same as {@link #getResponseAsync(String, ResponseDecoder)}, but calls that miss the cache wait
+     * in the request scheduler behind calls of a higher priority.
+     * A call joined while already queued keeps the priority it was queued with.
+     *
+     * @param priority how urgently the call should be made if the quota is running low
+     */
+    public static <T> CompletableFuture<T> getResponseAsync(String endPoint, ResponseDecoder<T> decoder, Priority priority) {
+        return getResponseAsync(endPoint, decoder, priority, true);
+    }
+
+    /**
+     * Same as {@link #getResponseAsync(String, ResponseDecoder, Priority)}, but always asks the API,
+     * even while the cache holds a valid response, e.g. for polls more frequent than the endpoint's TTL.
+     * The response still refreshes the cache, and a call that fails for good is still answered from an
+     * expired entry.
+     */
+    public static <T> CompletableFuture<T> getFreshResponseAsync(String endPoint, ResponseDecoder<T> decoder, Priority priority) {
+        return getResponseAsync(endPoint, decoder, priority, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<T> getResponseAsync(String endPoint, ResponseDecoder<T> decoder, Priority priority,
+                                                             boolean useCache) {
+        RequestKey requestKey = new RequestKey(endPoint, decoder);
+        EndpointMetrics metrics = METRICS.get(EndpointType.of(endPoint));
+        Object cached = useCache ? CACHE.get(requestKey) : null;
+        if (cached != null) {
+            metrics.recordCacheHit();
+            return CompletableFuture.completedFuture((T) cached);
+        }
+        metrics.recordCacheMiss();
+
+        // Callers get a dependent future so cancelling one of them never cancels the shared call
+        return IN_FLIGHT.execute(requestKey, key -> fetchWithRetry(key, priority, 1)
+                .handle((value, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(value);
+                    }
+                    ApiException failure = toApiException(error);
+                    Object stale = CACHE.getStale(key);
+                    errorListener.onError(EndpointType.of(endPoint), failure, stale != null);
+                    return stale != null ? CompletableFuture.completedFuture(stale) : CompletableFuture.failedFuture(failure);
+                })
+                .thenCompose(result -> result)
+        ).thenApply(value -> (T) value);
+    }
+
+    /**
+     * Makes the call through the scheduler and the endpoint's circuit breaker, retrying transient
+     * failures after a jittered exponential backoff. Each retry queues again with the same priority,
+     * so it also waits for its share of the quota.
+     */
+    private static CompletableFuture<Object> fetchWithRetry(RequestKey key, Priority priority, int attempt) {
+        String endPoint = key.endPoint();
+        EndpointType type = EndpointType.of(endPoint);
+        CircuitBreaker breaker = BREAKERS.get(type);
+        if (!breaker.tryAcquire()) {
+            METRICS.get(type).recordError(ApiException.Kind.CIRCUIT_OPEN.name());
+            return CompletableFuture.failedFuture(new ApiException(ApiException.Kind.CIRCUIT_OPEN,
+                    type.getPath() + " is unavailable, trying again in "
+                            + TimeUnit.MILLISECONDS.toSeconds(breaker.getRemainingOpenMillis() + 999) + "s"));
+        }
+
+        CompletableFuture<Object> call = SCHEDULER.submit(priority, () -> {
+            try {
+                return fetchDataFromApi(endPoint, key.decoder()).thenApply(decoded -> {
+                    CACHE.put(key, decoded.value, decoded.bytes, ttlFor(endPoint));
+                    return (Object) decoded.value;
+                });
+            } catch (ApiException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+
+        return call.handle((value, error) -> {
+            if (error == null) {
+                breaker.onSuccess();
+                return CompletableFuture.completedFuture(value);
+            }
+            ApiException failure = toApiException(error);
+            // Rate limiting is the scheduler's business and a rejected request still proves the API is up
+            if (failure.isTransient() && failure.getKind() != ApiException.Kind.RATE_LIMITED) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+
+            if (!failure.isTransient() || attempt >= MAX_ATTEMPTS) {
+                return CompletableFuture.<Object>failedFuture(failure);
+            }
+            return CompletableFuture.runAsync(() -> {
+                    }, CompletableFuture.delayedExecutor(backoffMillis(attempt), TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> fetchWithRetry(key, priority, attempt + 1));
+        }).thenCompose(result -> result);
+    }
+
+    /**
+     * "Full jitter" backoff: a random delay up to base * 2^(attempt - 1), capped, so clients that
+     * failed together do not retry together
+     */
+    static long backoffMillis(int attempt) {
+        long ceiling = Math.min(RETRY_MAX_DELAY, RETRY_BASE_DELAY << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * @return the response cache, for statistics and manual invalidation
+     */
+    public static ResponseCache<RequestKey, Object> getCache() {
+        return CACHE;
+    }
+
+    /**
+     * @return the circuit breaker of the endpoint family, for diagnostics
+     */
+    public static CircuitBreaker getCircuitBreaker(EndpointType type) {
+        return BREAKERS.get(type);
+    }
+
+    /**
+     * @return the latency, payload, error and cache statistics of the endpoint family
+     */
+    public static EndpointMetrics getMetrics(EndpointType type) {
+        return METRICS.get(type);
+    }
+
+    /**
+     * @return the request scheduler, for queue depth and wait-time statistics
+     */
+    public static RequestScheduler getScheduler() {
+        return SCHEDULER;
+    }
+
+    /**
+     * Time to live of a response in milliseconds.
+     * Rates for past dates never change, so historical and time-series responses that end
+     * before today are kept forever; everything else uses the TTL configured for its endpoint.
+     */
+    static long ttlFor(String endPoint) {
+        EndpointType type = EndpointType.of(endPoint);
+        switch (type) {
+            case CURRENCIES:
+                return Config.getLong("cache.ttl.currencies", 86400) * 1000;
+            case FETCH_ALL:
+                return Config.getLong("cache.ttl.fetchAll", 60) * 1000;
+            case HISTORICAL:
+                return isBeforeToday(queryParam(endPoint, "date"))
+                        ? ResponseCache.FOREVER
+                        : Config.getLong("cache.ttl.historical", 3600) * 1000;
+            case TIME_SERIES:
+                return isBeforeToday(queryParam(endPoint, "end"))
+                        ? ResponseCache.FOREVER
+                        : Config.getLong("cache.ttl.timeSeries", 3600) * 1000;
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean isBeforeToday(String isoDate) {
+        if (isoDate == null) {
+            return false;
+        }
+        try {
+            return LocalDate.parse(isoDate).isBefore(LocalDate.now());
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static String queryParam(String endPoint, String name) {
+        int query = endPoint.indexOf('?');
+        if (query < 0) {
             return null;
         }
+        for (String param : endPoint.substring(query + 1).split("&")) {
+            if (param.startsWith(name + "=")) {
+                return param.substring(name.length() + 1);
+            }
+        }
+        return null;
     }
 
     /**
      * Internal method to fetch data from the API
      */
-    private static String fetchDataFromApi(String endPoint) throws ApiException {
-        HttpURLConnection conn = null;
-        BufferedReader br = null;
-
+    private static <T> CompletableFuture<Decoded<T>> fetchDataFromApi(String endPoint, ResponseDecoder<T> decoder) throws ApiException {
+        HttpRequest request;
         try {
-            // Build the URL
+            // Build the request
             URI uri = new URI(BASE_URL + endPoint + API_KEY);
-            URL url = uri.toURL();
-
-            // Create the connection with timeouts
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("Accept", "application/json");
-            conn.setConnectTimeout(CONNECTION_TIMEOUT);
-            conn.setReadTimeout(READ_TIMEOUT);
-
-            // Check for the successful response
-            int responseCode = conn.getResponseCode();
-            if (responseCode != 200) {
-                String errorMessage;
-                try {
-                    // Try to read the error stream for more details
-                    br = new BufferedReader(new InputStreamReader(conn.getErrorStream()));
-                    StringBuilder errorResponse = new StringBuilder();
-                    String line;
-                    while ((line = br.readLine()) != null) {
-                        errorResponse.append(line);
+            request = HttpRequest.newBuilder(uri)
+                    .GET()
+                    .header("Accept", "application/json")
+                    .timeout(Duration.ofMillis(READ_TIMEOUT))
+                    .build();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new ApiException(ApiException.Kind.UNEXPECTED, "Invalid URL format: " + e.getMessage());
+        }
+
+        EndpointType type = EndpointType.of(endPoint);
+        EndpointMetrics metrics = METRICS.get(type);
+        long sentAt = System.nanoTime();
+        HttpFetchEvent fetchEvent = new HttpFetchEvent();
+        fetchEvent.begin();
+
+        // The future completes once the headers are in; the body is then decoded on a worker thread
+        // as it arrives, so the client's own threads never block on a slow stream
+        return CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .handleAsync((response, error) -> {
+                    if (error != null) {
+                        ApiException failure = toApiException(error);
+                        metrics.recordError(failure.getKind().name());
+                        commitFetchEvent(fetchEvent, type, endPoint, 0, 0);
+                        throw new CompletionException(failure);
                     }
-                    errorMessage = errorResponse.toString();
-                } catch (Exception e) {
-                    errorMessage = "No additional error details available";
-                }
+                    applyRateLimitHeaders(response.statusCode(), response.headers());
 
-                throw new ApiException("API returned error: " + errorMessage, responseCode);
-            }
+                    CountingInputStream body = new CountingInputStream(response.body());
+                    try (body; Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+                        // Check for the successful response
+                        if (response.statusCode() != 200) {
+                            String errorMessage = ResponseDecoder.STRING.decode(reader);
+                            metrics.recordErrorResponse(response.statusCode(), System.nanoTime() - sentAt, body.getCount());
+                            if (errorMessage.isEmpty()) {
+                                errorMessage = "No additional error details available";
+                            }
+                            throw new ApiException("API returned error: " + errorMessage, response.statusCode());
+                        }
 
-            // Read successful response
-            br = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            StringBuilder sb = new StringBuilder();
-            String output;
-            while ((output = br.readLine()) != null) {
-                sb.append(output);
-            }
+                        JsonDecodeEvent decodeEvent = new JsonDecodeEvent();
+                        decodeEvent.begin();
+                        long decodeStart = System.nanoTime();
+                        T value = decoder.decode(reader);
+                        long decodedAt = System.nanoTime();
+                        decodeEvent.end();
+                        if (decodeEvent.shouldCommit()) {
+                            decodeEvent.endpoint = type.getPath();
+                            decodeEvent.pair = pairOf(endPoint);
+                            decodeEvent.payloadSize = body.getCount();
+                            decodeEvent.commit();
+                        }
+                        if (value == null) {
+                            throw new ApiException(ApiException.Kind.BAD_RESPONSE,
+                                    "Empty response from " + type.getPath());
+                        }
+                        metrics.recordResponse(decodedAt - sentAt, decodedAt - decodeStart, body.getCount());
+                        return new Decoded<>(value, body.getCount());
+                    } catch (ApiException e) {
+                        if (e.getStatusCode() == 0) {
+                            metrics.recordError(e.getKind().name());
+                        }
+                        throw new CompletionException(e);
+                    } catch (IOException e) {
+                        ApiException failure = toApiException(e);
+                        metrics.recordError(failure.getKind().name());
+                        throw new CompletionException(failure);
+                    } catch (RuntimeException e) {
+                        // Gson reports malformed bodies as unchecked exceptions
+                        metrics.recordError(ApiException.Kind.BAD_RESPONSE.name());
+                        throw new CompletionException(new ApiException(ApiException.Kind.BAD_RESPONSE,
+                                "Unreadable response from " + type.getPath() + ": " + e.getMessage()));
+                    } finally {
+                        commitFetchEvent(fetchEvent, type, endPoint, response.statusCode(), body.getCount());
+                    }
+                }, DECODE_EXECUTOR);
+    }
 
-            return sb.toString();
-
-        } catch (UnknownHostException e) {
-            throw new ApiException("Unable to connect to the server. Please check your internet connection.");
-        } catch (IOException e) {
-            throw new ApiException("Communication error: " + e.getMessage());
-        } catch (URISyntaxException e) {
-            throw new ApiException("Invalid URL format: " + e.getMessage());
-        } catch (ApiException e) {
-            throw e; // Re-throw ApiExceptions
-        } catch (Exception e) {
-            throw new ApiException("Unexpected error: " + e.getMessage());
-        } finally {
-            // Clean up resources
-            if (br != null) {
-                try {
-                    br.close();
-                } catch (IOException e) {
-                    System.err.println("Error closing reader: " + e.getMessage());
+    private static void commitFetchEvent(HttpFetchEvent event, EndpointType type, String endPoint, int status, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = type.getPath();
+            event.pair = pairOf(endPoint);
+            event.status = status;
+            event.payloadSize = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return "FROM/TO", or only "FROM" for endpoints that take a base currency, or "" if there is none
+     */
+    static String pairOf(String endPoint) {
+        String from = queryParam(endPoint, "from");
+        String to = queryParam(endPoint, "to");
+        if (from == null) {
+            return "";
+        }
+        return to == null ? from : from + "/" + to;
+    }
+
+    /**
+     * Slows the scheduler down to what the API says is left of the quota.
+     * Retry-After (seconds or an HTTP date) pauses all calls after a 429 or 503;
+     * X-RateLimit-Remaining caps the bucket and, once it reaches 0, X-RateLimit-Reset
+     * (seconds to wait, or an epoch second) pauses calls until the window resets.
+     */
+    static void applyRateLimitHeaders(int statusCode, HttpHeaders headers) {
+        if (statusCode == 429 || statusCode == 503) {
+            long retryAfter = parseRetryAfter(headers.firstValue("Retry-After").orElse(null));
+            SCHEDULER.pauseFor(retryAfter >= 0 ? retryAfter : 1000);
+        }
+
+        OptionalLong remaining = headers.firstValueAsLong("X-RateLimit-Remaining");
+        if (remaining.isPresent()) {
+            SCHEDULER.limitTokens(remaining.getAsLong());
+            if (remaining.getAsLong() <= 0) {
+                OptionalLong reset = headers.firstValueAsLong("X-RateLimit-Reset");
+                if (reset.isPresent()) {
+                    SCHEDULER.pauseFor(resetDelayMillis(reset.getAsLong(), System.currentTimeMillis()));
                 }
             }
-            if (conn != null) {
-                conn.disconnect();
+        }
+    }
+
+    /**
+     * @return the delay a Retry-After value asks for in milliseconds, or -1 if it cannot be read
+     */
+    static long parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            // Not a number of seconds, so it should be an HTTP date
+        }
+        try {
+            Instant at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return Math.max(0, at.toEpochMilli() - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reset values larger than a year in seconds are taken as an epoch second, the rest as a delay
+     */
+    static long resetDelayMillis(long reset, long nowMillis) {
+        if (reset > 365L * 24 * 3600) {
+            return Math.max(0, reset * 1000 - nowMillis);
+        }
+        return Math.max(0, reset * 1000);
+    }
+
+    /**
+     * A decoded response together with the number of bytes it was decoded from
+     */
+    private record Decoded<T>(T value, long bytes) {
+    }
+
+    /**
+     * Counts the bytes read from the response stream, used to weigh cache entries and for the metrics
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
             }
+            return n;
+        }
+
+        long getCount() {
+            return count;
         }
     }
 
     /**
-     * Shows an error dialog on the EDT
+     * Maps transport failures to the user-facing ApiException messages
      */
-    private static void showErrorDialog(String title, String message) {
-        SwingUtilities.invokeLater(() -> {
-            JOptionPane.showMessageDialog(
-                    null,
-                    message,
-                    title,
-                    JOptionPane.ERROR_MESSAGE
-            );
-        });
+    private static ApiException toApiException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        if (cause instanceof ApiException apiException) {
+            return apiException;
+        } else if (cause instanceof UnknownHostException || cause instanceof ConnectException) {
+            return new ApiException(ApiException.Kind.NETWORK,
+                    "Unable to connect to the server. Please check your internet connection.");
+        } else if (cause instanceof HttpTimeoutException) {
+            return new ApiException(ApiException.Kind.TIMEOUT, "Communication error: request timed out");
+        } else if (cause instanceof IOException) {
+            return new ApiException(ApiException.Kind.NETWORK, "Communication error: " + cause.getMessage());
+        }
+        return new ApiException(ApiException.Kind.UNEXPECTED, "Unexpected error: " + cause.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.currencyApp.model;
+
+/**
+ * Latest rate of one currency pair and how much it moved over the last day
+ *
+ * @param base          the currency being quoted
+ * @param target        the currency it is quoted in
+ * @param rate          units of target per one unit of base
+ * @param changePercent change of the rate against the previous day, in percent (negative when it fell)
+ */
+public record PairQuote(String base, String target, float rate, float changePercent) {
+
+    /**
+     * @return true if the rate went up or stayed the same
+     */
+    public boolean isRising() {
+        return changePercent >= 0;
+    }
+
+    /**
+     * @param rate          the latest rate
+     * @param previousRate  the rate of the day before
+     */
+    public static PairQuote of(String base, String target, float rate, float previousRate) {
+        return new PairQuote(base, target, rate, changePercent(rate, previousRate));
+    }
+
+    static float changePercent(float rate, float previousRate) {
+        return ((rate - previousRate) / previousRate) * 100f;
+    }
+}
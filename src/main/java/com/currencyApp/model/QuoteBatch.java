@@ -0,0 +1,106 @@
+package com.currencyApp.model;
+
+import java.util.Arrays;
+
+/**
+ * Latest rates and daily changes of many currency pairs, stored column by column in parallel
+ * primitive arrays so a batch of ~160 quotes is a handful of objects rather than one per quote.
+ * Use {@link #get(int)} only where a single {@link PairQuote} is handier than the columns.
+ */
+public class QuoteBatch {
+    public static final QuoteBatch EMPTY = new Builder().build();
+
+    private final String[] bases;
+    private final String[] targets;
+    private final float[] rates;
+    private final float[] changes;
+
+    private QuoteBatch(String[] bases, String[] targets, float[] rates, float[] changes) {
+        this.bases = bases;
+        this.targets = targets;
+        this.rates = rates;
+        this.changes = changes;
+    }
+
+    /**
+     * @return the index of the pair, or -1 if the batch has no quote for it
+     */
+    public int indexOf(String base, String target) {
+        for (int i = 0; i < bases.length; i++) {
+            if (bases[i].equals(base) && targets[i].equals(target)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String getBase(int index) {
+        return bases[index];
+    }
+
+    public String getTarget(int index) {
+        return targets[index];
+    }
+
+    /**
+     * @return units of the target currency per one unit of the base currency
+     */
+    public float getRate(int index) {
+        return rates[index];
+    }
+
+    /**
+     * @return change against the previous day, in percent
+     */
+    public float getChangePercent(int index) {
+        return changes[index];
+    }
+
+    public boolean isRising(int index) {
+        return changes[index] >= 0;
+    }
+
+    public PairQuote get(int index) {
+        return new PairQuote(bases[index], targets[index], rates[index], changes[index]);
+    }
+
+    public int size() {
+        return bases.length;
+    }
+
+    public boolean isEmpty() {
+        return bases.length == 0;
+    }
+
+    public static class Builder {
+        private String[] bases = new String[16];
+        private String[] targets = new String[16];
+        private float[] rates = new float[16];
+        private float[] changes = new float[16];
+        private int size = 0;
+
+        /**
+         * @param rate         the latest rate
+         * @param previousRate the rate of the day before
+         */
+        public Builder add(String base, String target, float rate, float previousRate) {
+            if (size == bases.length) {
+                bases = Arrays.copyOf(bases, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+                rates = Arrays.copyOf(rates, size * 2);
+                changes = Arrays.copyOf(changes, size * 2);
+            }
+            bases[size] = base;
+            targets[size] = target;
+            rates[size] = rate;
+            changes[size] = PairQuote.changePercent(rate, previousRate);
+            size++;
+            return this;
+        }
+
+        public QuoteBatch build() {
+            return new QuoteBatch(Arrays.copyOf(bases, size), Arrays.copyOf(targets, size),
+                    Arrays.copyOf(rates, size), Arrays.copyOf(changes, size));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.currencyApp.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily rates of any number of currency pairs, kept per pair as sorted epoch-day and rate columns.
+ * Points can be appended or merged in any order; range queries are a binary search plus an array copy.
+ * All methods are synchronized, so fetches on background threads can fill the store while the UI reads it.
+ */
+public class RateHistory {
+    // base -> target -> column
+    private final Map<String, Map<String, Column>> pairs = new HashMap<>();
+
+    /**
+     * Adds or replaces the rate of a pair on one day
+     */
+    public synchronized void append(String base, String target, int epochDay, double rate) {
+        column(base, target).put(epochDay, rate);
+    }
+
+    /**
+     * Adds or replaces every point of the series
+     */
+    public synchronized void merge(RateSeries series) {
+        Column column = column(series.getBase(), series.getTarget());
+        for (int i = 0; i < series.size(); i++) {
+            column.put(series.getEpochDay(i), series.getRate(i));
+        }
+    }
+
+    /**
+     * @return the points of the pair from fromDay to toDay inclusive, oldest first; empty if there are none
+     */
+    public synchronized RateSeries range(String base, String target, int fromDay, int toDay) {
+        Column column = find(base, target);
+        if (column == null || fromDay > toDay) {
+            return new RateSeries(base, target, new int[0], new double[0]);
+        }
+        int from = column.lowerBound(fromDay);
+        int to = column.lowerBound(toDay + 1);
+        return new RateSeries(base, target,
+                Arrays.copyOfRange(column.days, from, to), Arrays.copyOfRange(column.rates, from, to));
+    }
+
+    /**
+     * @return every point of the pair, oldest first; empty if there are none
+     */
+    public synchronized RateSeries getSeries(String base, String target) {
+        return range(base, target, Integer.MIN_VALUE, Integer.MAX_VALUE - 1);
+    }
+
+    /**
+     * @return the most recent day the pair has a rate for, or Integer.MIN_VALUE if it has none
+     */
+    public synchronized int getLastDay(String base, String target) {
+        Column column = find(base, target);
+        return column == null || column.size == 0 ? Integer.MIN_VALUE : column.days[column.size - 1];
+    }
+
+    /**
+     * @return the oldest day the pair has a rate for, or Integer.MAX_VALUE if it has none
+     */
+    public synchronized int getFirstDay(String base, String target) {
+        Column column = find(base, target);
+        return column == null || column.size == 0 ? Integer.MAX_VALUE : column.days[0];
+    }
+
+    public synchronized boolean contains(String base, String target) {
+        Column column = find(base, target);
+        return column != null && column.size > 0;
+    }
+
+    /**
+     * @return a copy of every pair's series
+     */
+    public synchronized List<RateSeries> getAll() {
+        List<RateSeries> all = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Column>> base : pairs.entrySet()) {
+            for (String target : base.getValue().keySet()) {
+                all.add(getSeries(base.getKey(), target));
+            }
+        }
+        return all;
+    }
+
+    private Column find(String base, String target) {
+        Map<String, Column> targets = pairs.get(base);
+        return targets == null ? null : targets.get(target);
+    }
+
+    private Column column(String base, String target) {
+        return pairs.computeIfAbsent(base, key -> new HashMap<>()).computeIfAbsent(target, key -> new Column());
+    }
+
+    /**
+     * One pair's points, sorted by day
+     */
+    private static final class Column {
+        int[] days = new int[16];
+        double[] rates = new double[16];
+        int size;
+
+        void put(int day, double rate) {
+            // The common case: a newer day than everything so far
+            if (size == 0 || day > days[size - 1]) {
+                ensureCapacity();
+                days[size] = day;
+                rates[size] = rate;
+                size++;
+                return;
+            }
+
+            int index = lowerBound(day);
+            if (index < size && days[index] == day) {
+                rates[index] = rate;
+                return;
+            }
+            ensureCapacity();
+            System.arraycopy(days, index, days, index + 1, size - index);
+            System.arraycopy(rates, index, rates, index + 1, size - index);
+            days[index] = day;
+            rates[index] = rate;
+            size++;
+        }
+
+        /**
+         * @return the index of the first point on or after the day
+         */
+        int lowerBound(int day) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void ensureCapacity() {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                rates = Arrays.copyOf(rates, size * 2);
+            }
+        }
+    }
+}
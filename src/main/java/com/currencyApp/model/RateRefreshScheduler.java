@@ -0,0 +1,133 @@
+package com.currencyApp.model;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Polls the latest rates at a fixed interval on a background thread and reports only the
+ * currencies whose rate changed since the previous poll, so the UI can update in place.
+ */
+public class RateRefreshScheduler implements AutoCloseable {
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fxflip-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Supplier<RateTable> fetcher;
+    private final long intervalSeconds;
+    private final Consumer<Update> listener;
+    private final Executor listenerExecutor;
+
+    // Only touched by the refresh thread
+    private RateTable previous;
+    private ScheduledFuture<?> task;
+
+    /**
+     * Currencies whose rate changed between two polls
+     *
+     * @param table          the rates of the latest poll
+     * @param changedCodes   codes of the currencies whose rate changed
+     * @param changedRates   their new rates, in the same order
+     * @param newCurrencies  true if the latest poll has currencies the previous one did not,
+     *                       in which case the receiver should rebuild from {@code table}
+     */
+    public record Update(RateTable table, String[] changedCodes, double[] changedRates, boolean newCurrencies) {
+        public int size() {
+            return changedCodes.length;
+        }
+    }
+
+    /**
+     * @param fetcher          fetches the latest rates; may return null or throw when the call fails
+     * @param intervalSeconds  time between the end of one poll and the start of the next
+     * @param listener         receives every non-empty update
+     * @param listenerExecutor where the listener runs, e.g. the FX thread
+     */
+    public RateRefreshScheduler(Supplier<RateTable> fetcher, long intervalSeconds,
+                                Consumer<Update> listener, Executor listenerExecutor) {
+        if (intervalSeconds <= 0) {
+            throw new IllegalArgumentException("intervalSeconds must be positive: " + intervalSeconds);
+        }
+        this.fetcher = fetcher;
+        this.intervalSeconds = intervalSeconds;
+        this.listener = listener;
+        this.listenerExecutor = listenerExecutor;
+    }
+
+    /**
+     * Starts polling
+     *
+     * @param current the rates the UI shows now, used as the baseline of the first diff
+     */
+    public synchronized void start(RateTable current) {
+        if (task != null) {
+            return;
+        }
+        executor.execute(() -> previous = current);
+        task = executor.scheduleWithFixedDelay(this::poll, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Replaces the baseline, e.g. after the UI loaded rates by other means
+     */
+    public void reset(RateTable current) {
+        executor.execute(() -> previous = current);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (task != null) {
+            task.cancel(false);
+        }
+        executor.shutdownNow();
+    }
+
+    private void poll() {
+        // An exception escaping a scheduled task would cancel every later run
+        try {
+            RateTable latest = fetcher.get();
+            if (latest == null || latest.isEmpty()) {
+                return;
+            }
+            Update update = diff(previous, latest);
+            previous = latest;
+            if (update.size() > 0 || update.newCurrencies()) {
+                listenerExecutor.execute(() -> listener.accept(update));
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Rate refresh failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compares two polls. Currencies missing from the latest poll are not reported; they keep their last rate.
+     */
+    public static Update diff(RateTable previous, RateTable latest) {
+        String[] codes = new String[latest.size()];
+        double[] rates = new double[latest.size()];
+        int changed = 0;
+        boolean newCurrencies = false;
+
+        for (int id = 0; id < latest.size(); id++) {
+            String code = latest.getCode(id);
+            double rate = latest.getRate(id);
+            int previousId = previous == null ? -1 : previous.indexOf(code);
+            if (previousId < 0) {
+                newCurrencies = true;
+            } else if (Double.compare(previous.getRate(previousId), rate) == 0) {
+                continue;
+            }
+            codes[changed] = code;
+            rates[changed] = rate;
+            changed++;
+        }
+        return new Update(latest, Arrays.copyOf(codes, changed), Arrays.copyOf(rates, changed), newCurrencies);
+    }
+}
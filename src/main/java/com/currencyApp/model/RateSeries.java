@@ -0,0 +1,84 @@
+package com.currencyApp.model;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Daily rates of one currency pair, oldest first, as parallel arrays of epoch days and rates
+ */
+public class RateSeries {
+    private final String base;
+    private final String target;
+    private final int[] epochDays;
+    private final double[] rates;
+
+    public RateSeries(String base, String target, int[] epochDays, double[] rates) {
+        if (epochDays.length != rates.length) {
+            throw new IllegalArgumentException("epochDays and rates differ in length");
+        }
+        this.base = base;
+        this.target = target;
+        this.epochDays = epochDays;
+        this.rates = rates;
+    }
+
+    /**
+     * @param dateRates ISO date -> rate, iterated in date order (e.g. a TreeMap)
+     */
+    public static RateSeries of(String base, String target, Map<String, Double> dateRates) {
+        int[] epochDays = new int[dateRates.size()];
+        double[] rates = new double[dateRates.size()];
+        int i = 0;
+        for (Map.Entry<String, Double> entry : dateRates.entrySet()) {
+            epochDays[i] = (int) LocalDate.parse(entry.getKey()).toEpochDay();
+            rates[i] = entry.getValue();
+            i++;
+        }
+        return new RateSeries(base, target, epochDays, rates);
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public int getEpochDay(int index) {
+        return epochDays[index];
+    }
+
+    public LocalDate getDate(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public double getRate(int index) {
+        return rates[index];
+    }
+
+    /**
+     * @return the index of the last point on or before the day, or -1 if every point is later
+     */
+    public int indexOnOrBefore(int epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] <= epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+}
@@ -0,0 +1,202 @@
+package com.currencyApp.model;
+
+import com.currencyApp.config.Config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Last-known currency list, rate table and rate history, persisted to a local file
+ * so the UI can be drawn before the API answers (or when it is unreachable).
+ * The file is a small binary blob that is read through a memory-mapped FileChannel.
+ */
+public class RateSnapshot {
+    private static final int MAGIC = 0x46585350; // "FXSP"
+    private static final int VERSION = 3;
+
+    private final long savedAt;
+    private final List<Currency> currencies;
+    private final RateTable rates;
+    private final RateHistory history;
+
+    public RateSnapshot(List<Currency> currencies, RateTable rates, RateHistory history) {
+        this(System.currentTimeMillis(), currencies, rates, history);
+    }
+
+    private RateSnapshot(long savedAt, List<Currency> currencies, RateTable rates, RateHistory history) {
+        this.savedAt = savedAt;
+        this.currencies = currencies;
+        this.rates = rates;
+        this.history = history;
+    }
+
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    public List<Currency> getCurrencies() {
+        return currencies;
+    }
+
+    public RateTable getRates() {
+        return rates;
+    }
+
+    public RateHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * @return true if the snapshot holds enough data to draw the converter
+     */
+    public boolean isUsable() {
+        return !currencies.isEmpty() && !rates.isEmpty();
+    }
+
+    /**
+     * Location of the snapshot file, configurable via "snapshot.path"
+     */
+    public static Path defaultPath() {
+        String configured = Config.get("snapshot.path");
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured.replace("~", System.getProperty("user.home")));
+        }
+        return Paths.get(System.getProperty("user.home"), ".fxflip", "rates.snapshot");
+    }
+
+    /**
+     * Loads a snapshot from disk
+     *
+     * @return the snapshot, or null if there is none or it cannot be read
+     */
+    public static RateSnapshot load(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("Ignoring unreadable rate snapshot " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the snapshot to disk, replacing the previous one atomically
+     */
+    public void save(Path path) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "rates", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(write());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private byte[] write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(savedAt);
+
+        out.writeInt(currencies.size());
+        for (Currency currency : currencies) {
+            writeString(out, currency.getCode());
+            writeString(out, currency.getName());
+        }
+
+        writeString(out, rates.getBase());
+        out.writeInt(rates.size());
+        for (int id = 0; id < rates.size(); id++) {
+            writeString(out, rates.getCode(id));
+            out.writeDouble(rates.getRate(id));
+        }
+
+        List<RateSeries> allSeries = history.getAll();
+        out.writeInt(allSeries.size());
+        for (RateSeries series : allSeries) {
+            writeString(out, series.getBase());
+            writeString(out, series.getTarget());
+            out.writeInt(series.size());
+            for (int i = 0; i < series.size(); i++) {
+                out.writeInt(series.getEpochDay(i));
+                out.writeDouble(series.getRate(i));
+            }
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static RateSnapshot read(ByteBuffer in) {
+        if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+            throw new IllegalArgumentException("unknown snapshot format");
+        }
+        long savedAt = in.getLong();
+
+        int currencyCount = in.getInt();
+        List<Currency> currencies = new ArrayList<>(currencyCount);
+        for (int i = 0; i < currencyCount; i++) {
+            String code = readString(in);
+            currencies.add(new Currency(code, readString(in)));
+        }
+
+        String rateBase = readString(in);
+        int rateCount = in.getInt();
+        RateTable.Builder rates = new RateTable.Builder();
+        for (int i = 0; i < rateCount; i++) {
+            rates.put(readString(in), in.getDouble());
+        }
+
+        int seriesCount = in.getInt();
+        RateHistory history = new RateHistory();
+        for (int i = 0; i < seriesCount; i++) {
+            String base = readString(in);
+            String target = readString(in);
+            int points = in.getInt();
+            for (int j = 0; j < points; j++) {
+                history.append(base, target, in.getInt(), in.getDouble());
+            }
+        }
+
+        return new RateSnapshot(savedAt, currencies, rates.build(rateBase), history);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,22 @@
+package com.currencyApp.model;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where rate tables for a given day come from, for conversions that are not tied to the UI
+ */
+public interface RateSource {
+    /**
+     * @param date the day to convert at, or null for the latest rates
+     * @return rates of every currency against one base currency
+     */
+    CompletableFuture<RateTable> ratesOn(LocalDate date);
+
+    /**
+     * Rates from the FastForex API: /fetch-all for the latest rates and /historical per date
+     */
+    static RateSource api() {
+        return date -> date == null ? Currency.getCurrencyRatesFromAPIAsync() : Currency.getRatesOnAsync(date);
+    }
+}
@@ -0,0 +1,148 @@
+package com.currencyApp.model;
+
+import java.util.Arrays;
+
+/**
+ * Exchange rates of every currency against one base currency, indexed by a dense int id.
+ * Ids are assigned once when the table is built, so lookups are a hash probe plus an array read
+ * and never allocate. Callers that look up the same currency repeatedly can resolve its id once
+ * with {@link #indexOf(String)} and use {@link #getRate(int)} afterwards.
+ */
+public class RateTable {
+    public static final RateTable EMPTY = new Builder().build("");
+
+    private final String base;
+    private final String[] codes;   // id -> code
+    private final double[] rates;   // id -> units of the currency per one unit of base
+
+    // Open-addressing index code -> id; slots hold id + 1 so that 0 means empty
+    private final int[] slots;
+    private final int mask;
+
+    // Shares the codes and the index, which never change once built
+    private RateTable(RateTable source) {
+        this.base = source.base;
+        this.codes = source.codes;
+        this.rates = source.rates.clone();
+        this.slots = source.slots;
+        this.mask = source.mask;
+    }
+
+    private RateTable(String base, String[] codes, double[] rates) {
+        this.base = base;
+        this.codes = codes;
+        this.rates = rates;
+
+        int capacity = Integer.highestOneBit(Math.max(4, codes.length * 2 - 1)) << 1;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        for (int id = 0; id < codes.length; id++) {
+            int slot = codes[id].hashCode() & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    /**
+     * @return the id of the currency, or -1 if the table has no rate for it
+     */
+    public int indexOf(String code) {
+        if (code == null) {
+            return -1;
+        }
+        int slot = code.hashCode() & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            if (codes[entry - 1].equals(code)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public boolean contains(String code) {
+        return indexOf(code) >= 0;
+    }
+
+    public double getRate(int id) {
+        return rates[id];
+    }
+
+    /**
+     * @return the rate of the currency, or NaN if the table has no rate for it
+     */
+    public double getRate(String code) {
+        int id = indexOf(code);
+        return id < 0 ? Double.NaN : rates[id];
+    }
+
+    /**
+     * Updates a single rate in place, e.g. when a refresh reports a new value
+     */
+    public void setRate(int id, double rate) {
+        rates[id] = rate;
+    }
+
+    /**
+     * @return a table with the same currencies and ids whose rates can be changed independently
+     */
+    public RateTable copy() {
+        return new RateTable(this);
+    }
+
+    public String getCode(int id) {
+        return codes[id];
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public boolean isEmpty() {
+        return codes.length == 0;
+    }
+
+    /**
+     * Collects rates in load order; a code added twice keeps its last rate
+     */
+    public static class Builder {
+        private String[] codes = new String[64];
+        private double[] rates = new double[64];
+        private int size = 0;
+
+        public Builder put(String code, double rate) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (codes[i].equals(code)) {
+                    rates[i] = rate;
+                    return this;
+                }
+            }
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
+                rates = Arrays.copyOf(rates, size * 2);
+            }
+            codes[size] = code;
+            rates[size] = rate;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param base the currency all rates are quoted against
+         */
+        public RateTable build(String base) {
+            return new RateTable(base, Arrays.copyOf(codes, size), Arrays.copyOf(rates, size));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.currencyApp.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache for API responses.
+ * Entries expire after their own time-to-live and the least recently used entries are
+ * evicted once either the entry count or the total size in bytes exceeds its limit.
+ * Expired entries can be kept for a grace period so they can still be served when a refresh fails.
+ *
+ * @param <K> cache key, e.g. the endpoint
+ * @param <V> cached value
+ */
+public class ResponseCache<K, V> {
+    /** TTL for entries that never change, e.g. rates of a past date */
+    public static final long FOREVER = Long.MAX_VALUE;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long staleMillis;
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true); // access order = LRU
+    private long totalBytes = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private static final class Entry<V> {
+        final V value;
+        final long weight;
+        final long expiresAt;
+
+        Entry(V value, long weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public ResponseCache(int maxEntries, long maxBytes) {
+        this(maxEntries, maxBytes, 0);
+    }
+
+    /**
+     * @param staleMillis how long expired entries stay available to {@link #getStale}
+     */
+    public ResponseCache(int maxEntries, long maxBytes, long staleMillis) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.staleMillis = staleMillis;
+    }
+
+    /**
+     * @return the cached value, or null if absent or expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+            if (isPastGrace(entry, System.currentTimeMillis())) {
+                removeEntry(key, entry);
+            }
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Last resort when the value cannot be refreshed; does not count as a hit or a miss
+     *
+     * @return the cached value even if it has expired within the grace period, or null
+     */
+    public synchronized V getStale(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || isPastGrace(entry, System.currentTimeMillis())) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    private boolean isPastGrace(Entry<V> entry, long now) {
+        return entry.expiresAt <= now - staleMillis;
+    }
+
+    /**
+     * Stores a value, evicting least recently used entries if the cache grows past its bounds
+     *
+     * @param weightBytes approximate size of the value in bytes
+     * @param ttlMillis   time to live, or {@link #FOREVER}
+     */
+    public synchronized void put(K key, V value, long weightBytes, long ttlMillis) {
+        if (ttlMillis <= 0 || weightBytes > maxBytes) {
+            return; // not worth caching, or would evict everything else
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = ttlMillis == FOREVER || now > Long.MAX_VALUE - ttlMillis ? Long.MAX_VALUE : now + ttlMillis;
+
+        Entry<V> previous = entries.put(key, new Entry<>(value, weightBytes, expiresAt));
+        if (previous != null) {
+            totalBytes -= previous.weight;
+        }
+        totalBytes += weightBytes;
+        evictIfNeeded(now);
+    }
+
+    public synchronized void invalidate(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            removeEntry(key, entry);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    private void evictIfNeeded(long now) {
+        if (entries.size() <= maxEntries && totalBytes <= maxBytes) {
+            return;
+        }
+
+        // Expired entries go first, then the least recently used ones
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry<V> entry = it.next().getValue();
+            if (entry.expiresAt <= now) {
+                it.remove();
+                totalBytes -= entry.weight;
+            }
+        }
+
+        it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && it.hasNext()) {
+            Entry<V> entry = it.next().getValue();
+            it.remove();
+            totalBytes -= entry.weight;
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void removeEntry(K key, Entry<V> entry) {
+        entries.remove(key);
+        totalBytes -= entry.weight;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long sizeInBytes() {
+        return totalBytes;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return hits / (hits + misses), or 0 if the cache was never queried
+     */
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResponseCache[entries=%d, bytes=%d, hits=%d, misses=%d, evictions=%d]",
+                size(), sizeInBytes(), getHitCount(), getMissCount(), getEvictionCount());
+    }
+}
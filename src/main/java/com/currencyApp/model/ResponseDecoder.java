@@ -0,0 +1,27 @@
+package com.currencyApp.model;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Decodes an API response body straight from the network stream into its target structure.
+ * Decoders are also part of the cache key, so each one should be a single shared instance,
+ * and decoded values may be cached and shared between callers, so they must be treated as read-only.
+ *
+ * @param <T> decoded type
+ */
+@FunctionalInterface
+public interface ResponseDecoder<T> {
+    /** Reads the whole body into a String, for callers that still want raw JSON */
+    ResponseDecoder<String> STRING = body -> {
+        StringBuilder sb = new StringBuilder(8 * 1024);
+        char[] buffer = new char[8 * 1024];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            sb.append(buffer, 0, read);
+        }
+        return sb.toString();
+    };
+
+    T decode(Reader body) throws IOException;
+}
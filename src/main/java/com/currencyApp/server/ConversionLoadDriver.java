@@ -0,0 +1,115 @@
+package com.currencyApp.server;
+
+import com.currencyApp.model.CrossRateMatrix;
+import com.currencyApp.model.RateHistory;
+import com.currencyApp.model.RateTable;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the conversion API with a seeded mix of single conversions and rate lookups and prints
+ * throughput and latency percentiles. Without --url a {@link ConversionServer} is started in-process
+ * over synthetic rates, so the run needs neither the network nor an API key.
+ * <p>
+ * {@code --requests 100000 --concurrency 64 [--currencies 160] [--seed 42] [--url http://host:port]}
+ */
+public class ConversionLoadDriver {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> flags = MockFastForexServer.parseFlags(args);
+        int requests = Integer.parseInt(flags.getOrDefault("requests", "100000"));
+        int concurrency = Integer.parseInt(flags.getOrDefault("concurrency", "64"));
+        int currencies = Integer.parseInt(flags.getOrDefault("currencies", "160"));
+        long seed = Long.parseLong(flags.getOrDefault("seed", "42"));
+
+        RateTable rates = syntheticRates(currencies, seed);
+        ConversionServer server = null;
+        String baseUrl = flags.get("url");
+        if (baseUrl == null) {
+            CrossRateMatrix matrix = new CrossRateMatrix(rates);
+            server = new ConversionServer("127.0.0.1", 0, () -> matrix, new RateHistory(),
+                    (history, base, target, days) -> 0, date -> CompletableFuture.completedFuture(rates)).start();
+            baseUrl = server.getBaseUrl();
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        System.out.println("Driving " + requests + " requests at concurrency " + concurrency + " against " + baseUrl);
+        try {
+            run(client, baseUrl, rates, Math.min(requests, 20_000), concurrency, seed + 1);   // warm-up
+            LatencyReport result = run(client, baseUrl, rates, requests, concurrency, seed);
+            result.print();
+            if (server != null) {
+                System.out.println(server);
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private static LatencyReport run(HttpClient client, String baseUrl, RateTable rates, int requests, int concurrency,
+                                     long seed) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicLong failures = new AtomicLong();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path(random, rates, yesterday))).build();
+            inFlight.acquire();
+            int n = i;
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                latencies[n] = System.nanoTime() - start;
+                if (error != null || response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                }
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await();
+        return new LatencyReport(latencies, failures.get(), System.nanoTime() - startedAt);
+    }
+
+    /**
+     * 90% current conversions, 5% dated ones and 5% full rate rows
+     */
+    private static String path(SplittableRandom random, RateTable rates, LocalDate yesterday) {
+        String from = rates.getCode(random.nextInt(rates.size()));
+        String to = rates.getCode(random.nextInt(rates.size()));
+        int kind = random.nextInt(100);
+        if (kind < 90) {
+            return "/convert?from=" + from + "&to=" + to + "&amount=" + (1 + random.nextInt(100_000));
+        } else if (kind < 95) {
+            return "/convert?from=" + from + "&to=" + to + "&amount=" + (1 + random.nextInt(100_000))
+                    + "&date=" + yesterday.minusDays(random.nextInt(365));
+        }
+        return "/rates?base=" + from;
+    }
+
+    private static RateTable syntheticRates(int currencies, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        RateTable.Builder builder = new RateTable.Builder();
+        builder.put("MAD", 1);
+        for (int i = 1; i < currencies; i++) {
+            builder.put(String.valueOf(new char[]{(char) ('A' + i / 676 % 26), (char) ('A' + i / 26 % 26), (char) ('A' + i % 26)}),
+                    0.001 + random.nextDouble() * 50);
+        }
+        return builder.build("MAD");
+    }
+}
@@ -0,0 +1,614 @@
+package com.currencyApp.server;
+
+import com.currencyApp.config.Config;
+import com.currencyApp.metrics.ApiMetrics;
+import com.currencyApp.model.CrossRateMatrix;
+import com.currencyApp.model.Currency;
+import com.currencyApp.model.RateHistory;
+import com.currencyApp.model.RateRefreshScheduler;
+import com.currencyApp.model.RateSeries;
+import com.currencyApp.model.RateSnapshot;
+import com.currencyApp.model.RateSource;
+import com.currencyApp.model.RateTable;
+import com.currencyApp.util.CurrencyFormatter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Embedded HTTP API offering the app's conversions to other services, answered from the
+ * in-memory rate data:
+ * <ul>
+ * <li>GET /convert?from=EUR&amp;to=USD&amp;amount=100[&amp;date=2025-05-01]</li>
+ * <li>POST /convert with a JSON array of {"amount", "from", "to"[, "date"]} objects, answered in order</li>
+ * <li>GET /rates[?base=MAD]</li>
+ * <li>GET /history?base=MAD&amp;target=EUR[&amp;days=14]</li>
+ * </ul>
+ * Undated conversions and /rates only read the current matrix; dated ones use the rate source,
+ * whose past-day tables are cached by the API client once fetched. Since every new date is an
+ * upstream call, dates must lie within "server.maxDateAgeDays" of today, and no more than
+ * "server.datesPerMinute" different dates are served per minute across all clients.
+ */
+public class ConversionServer implements AutoCloseable {
+    private static final int MAX_BATCH = 10_000;
+    // Each distinct date is a /historical call against the shared quota
+    private static final int MAX_BATCH_DATES = 30;
+    private static final long DATE_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_HISTORY_DAYS = 366;
+    private static final long DATED_RATES_TIMEOUT_SECONDS = 30;
+
+    static {
+        // Headers and body go out as separate writes; with Nagle's algorithm on, every response
+        // after the first on a connection waits ~40ms for the client's delayed ACK.
+        // Read once when the JDK's server classes load, so it must be set before the first server is created
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Supplier<CrossRateMatrix> rates;
+    private final RateHistory history;
+    private final HistoryUpdater historyUpdater;
+    private final RateSource datedRates;
+    private final long maxDateAgeDays = Config.getLong("server.maxDateAgeDays", 366);
+    private final int datesPerMinute = Config.getInt("server.datesPerMinute", 30);
+
+    // Dates served in the last minute, with when each was first asked for; guarded by itself
+    private final Map<LocalDate, Long> recentDates = new HashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder conversions = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Brings a pair's history up to date, like {@link Currency#updateHistory}
+     */
+    public interface HistoryUpdater {
+        /**
+         * @return number of days that were added
+         */
+        int update(RateHistory history, String base, String target, int windowDays);
+    }
+
+    /**
+     * @param rates          current cross rates; read on every request, so swapping the matrix behind it is enough
+     *                       to serve new rates
+     * @param history        daily rates served by /history
+     * @param historyUpdater fetches the days /history is missing
+     * @param datedRates     rate tables for conversions with a date
+     */
+    public ConversionServer(String host, int port, Supplier<CrossRateMatrix> rates, RateHistory history,
+                            HistoryUpdater historyUpdater, RateSource datedRates) throws IOException {
+        this.rates = rates;
+        this.history = history;
+        this.historyUpdater = historyUpdater;
+        this.datedRates = datedRates;
+        this.executor = newRequestExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 4096);
+        server.setExecutor(executor);
+        server.createContext("/convert", exchange -> handle(exchange, this::convert));
+        server.createContext("/rates", exchange -> handle(exchange, this::rates));
+        server.createContext("/history", exchange -> handle(exchange, this::history));
+    }
+
+    public ConversionServer start() {
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConversionServer[%s, requests=%d, conversions=%d, errors=%d]",
+                getBaseUrl(), requests.sum(), conversions.sum(), errors.sum());
+    }
+
+    /**
+     * One virtual thread per request when the runtime has them (JDK 21+), otherwise a new platform
+     * thread per request. Looked up reflectively because the code is compiled for release 17.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "fxflip-api-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Produces the JSON body of a successful response
+     */
+    private interface Handler {
+        String respond(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * A request the client got wrong, answered with the given status and message
+     */
+    private static final class RequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        requests.increment();
+        try {
+            send(exchange, 200, handler.respond(exchange));
+        } catch (RequestException e) {
+            errors.increment();
+            send(exchange, e.status, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            errors.increment();
+            send(exchange, 500, error("Internal error: " + e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String convert(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestMethod().equals("POST")) {
+            return convertBatch(exchange);
+        }
+        requireGet(exchange);
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        StringBuilder json = new StringBuilder(128);
+        try {
+            appendConversion(json, parseAmount(require(query, "amount")), require(query, "from"),
+                    require(query, "to"), query.get("date"), this::ratesOn);
+        } catch (IllegalArgumentException e) {
+            throw new RequestException(400, e.getMessage());
+        }
+        return json.toString();
+    }
+
+    /**
+     * One element of a batch, as sent
+     */
+    private record BatchItem(String amount, String from, String to, String date) {
+    }
+
+    /**
+     * Converts every element of the array; an element that fails gets {"error": ...} in its place.
+     * The rates of all the dates in the batch are requested together before anything is converted.
+     */
+    private String convertBatch(HttpExchange exchange) throws IOException {
+        List<BatchItem> items = readBatch(exchange);
+
+        Set<LocalDate> dates = new HashSet<>();
+        for (BatchItem item : items) {
+            if (item.date() != null && !item.date().isEmpty()) {
+                try {
+                    dates.add(parseDate(item.date()));
+                } catch (IllegalArgumentException e) {
+                    continue; // reported on the item itself
+                }
+                if (dates.size() > MAX_BATCH_DATES) {
+                    throw new RequestException(413, "At most " + MAX_BATCH_DATES + " different dates per request");
+                }
+            }
+        }
+        admitDates(dates);
+        Map<LocalDate, CompletableFuture<RateTable>> tables = new HashMap<>();
+        for (LocalDate date : dates) {
+            tables.put(date, datedRates.ratesOn(date));
+        }
+        awaitAll(tables.values());
+        Function<LocalDate, RateTable> ratesOn = date -> {
+            CompletableFuture<RateTable> table = tables.get(date);
+            if (table == null || !table.isDone() || table.isCompletedExceptionally()) {
+                throw new IllegalArgumentException("Rates for " + date + " are unavailable");
+            }
+            return table.join();
+        };
+
+        StringBuilder json = new StringBuilder(64 + items.size() * 96).append("{\"results\":[");
+        for (int i = 0; i < items.size(); i++) {
+            BatchItem item = items.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            int start = json.length();
+            try {
+                if (item.amount() == null || item.from() == null || item.to() == null) {
+                    throw new IllegalArgumentException("amount, from and to are required");
+                }
+                appendConversion(json, parseAmount(item.amount()), item.from(), item.to(), item.date(), ratesOn);
+            } catch (IllegalArgumentException e) {
+                json.setLength(start);
+                json.append(error(e.getMessage()));
+            }
+        }
+        return json.append("]}").toString();
+    }
+
+    private static List<BatchItem> readBatch(HttpExchange exchange) {
+        List<BatchItem> items = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (items.size() == MAX_BATCH) {
+                    throw new RequestException(413, "At most " + MAX_BATCH + " conversions per request");
+                }
+                String amount = null;
+                String from = null;
+                String to = null;
+                String date = null;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "amount" -> amount = nextScalar(reader);
+                        case "from" -> from = nextScalar(reader);
+                        case "to" -> to = nextScalar(reader);
+                        case "date" -> date = nextScalar(reader);
+                        default -> reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                items.add(new BatchItem(amount, from, to, date));
+            }
+            reader.endArray();
+        } catch (IllegalStateException | NumberFormatException | IOException e) {
+            throw new RequestException(400, "Expected a JSON array of {amount, from, to[, date]} objects");
+        }
+        return items;
+    }
+
+    /**
+     * Waits up to the dated-rates timeout for all of the tables, together; failed or late ones are left as they are
+     */
+    private static void awaitAll(Iterable<CompletableFuture<RateTable>> tables) {
+        List<CompletableFuture<?>> settled = new ArrayList<>();
+        tables.forEach(table -> settled.add(table.exceptionally(error -> null)));
+        try {
+            CompletableFuture.allOf(settled.toArray(new CompletableFuture<?>[0]))
+                    .get(DATED_RATES_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // Items whose date did not arrive in time get an error of their own
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestException(503, "Interrupted");
+        }
+    }
+
+    /**
+     * @return the next value as text if it is a string or number, otherwise skips it and returns null
+     */
+    private static String nextScalar(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    /**
+     * @param ratesOn the rate table of a date
+     */
+    private void appendConversion(StringBuilder json, double amount, String fromCode, String toCode, String dateText,
+                                  Function<LocalDate, RateTable> ratesOn) {
+        String from = fromCode.trim().toUpperCase(Locale.ROOT);
+        String to = toCode.trim().toUpperCase(Locale.ROOT);
+        LocalDate date = dateText == null || dateText.isEmpty() ? null : parseDate(dateText);
+        double rate;
+        if (date == null) {
+            rate = currentRates().getCrossRate(from, to);
+        } else {
+            RateTable table = ratesOn.apply(date);
+            double fromRate = table.getRate(from);
+            double toRate = table.getRate(to);
+            if (Double.isNaN(fromRate) || fromRate == 0 || Double.isNaN(toRate)) {
+                throw new IllegalArgumentException("Rate not found for " + (Double.isNaN(toRate) ? to : from) + " on " + date);
+            }
+            rate = toRate / fromRate;
+        }
+        conversions.increment();
+
+        json.append("{\"from\":\"").append(from).append("\",\"to\":\"").append(to).append("\",\"amount\":");
+        CurrencyFormatter.appendFixed(json, amount, 4).append(",\"rate\":");
+        CurrencyFormatter.appendFixed(json, rate, 6).append(",\"converted\":");
+        CurrencyFormatter.appendFixed(json, amount * rate, 4);
+        if (date != null) {
+            json.append(",\"date\":\"").append(date).append('"');
+        }
+        json.append('}');
+    }
+
+    private String rates(HttpExchange exchange) {
+        requireGet(exchange);
+        CrossRateMatrix matrix = currentRates();
+        RateTable table = matrix.getRateTable();
+        String base = parseQuery(exchange.getRequestURI().getRawQuery())
+                .getOrDefault("base", table.getBase()).toUpperCase(Locale.ROOT);
+        int baseId = table.indexOf(base);
+        if (baseId < 0) {
+            throw new RequestException(400, "Rate not found for " + base);
+        }
+
+        StringBuilder json = new StringBuilder(table.size() * 20).append("{\"base\":\"").append(base).append("\",\"results\":{");
+        boolean first = true;
+        for (int id = 0; id < table.size(); id++) {
+            double rate = matrix.getRate(baseId, id);
+            if (Double.isNaN(rate)) {
+                continue;
+            }
+            json.append(first ? "\"" : ",\"").append(table.getCode(id)).append("\":");
+            CurrencyFormatter.appendFixed(json, rate, 6);
+            first = false;
+        }
+        return json.append("}}").toString();
+    }
+
+    /**
+     * The last "days" days of the pair, after fetching the days the store is missing, with the
+     * number of days actually returned (fewer where the API has no rate for a day).
+     * Only currencies the current rates know are accepted, so client input never reaches the API
+     * and unknown pairs cannot spend the quota.
+     */
+    private String history(HttpExchange exchange) {
+        requireGet(exchange);
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String base = requireKnownCurrency(query, "base");
+        String target = requireKnownCurrency(query, "target");
+        int days;
+        try {
+            days = Integer.parseInt(query.getOrDefault("days", "14"));
+        } catch (NumberFormatException e) {
+            throw new RequestException(400, "Invalid days");
+        }
+        if (days < 1 || days > MAX_HISTORY_DAYS) {
+            throw new RequestException(400, "days must be between 1 and " + MAX_HISTORY_DAYS);
+        }
+
+        // Does nothing when the store already has every day up to yesterday
+        historyUpdater.update(history, base, target, days);
+        int lastDay = history.getLastDay(base, target);
+        if (lastDay == Integer.MIN_VALUE) {
+            throw new RequestException(404, "No history for " + base + "/" + target);
+        }
+        RateSeries series = history.range(base, target, lastDay - (days - 1), lastDay);
+
+        StringBuilder json = new StringBuilder(64 + series.size() * 24)
+                .append("{\"base\":\"").append(base).append("\",\"target\":\"").append(target)
+                .append("\",\"days\":").append(series.size()).append(",\"results\":{");
+        for (int i = 0; i < series.size(); i++) {
+            json.append(i > 0 ? ",\"" : "\"").append(series.getDate(i)).append("\":");
+            CurrencyFormatter.appendFixed(json, series.getRate(i), 6);
+        }
+        return json.append("}}").toString();
+    }
+
+    private CrossRateMatrix currentRates() {
+        CrossRateMatrix matrix = rates.get();
+        if (matrix == null || matrix.isEmpty()) {
+            throw new RequestException(503, "Rates are not loaded yet");
+        }
+        return matrix;
+    }
+
+    private RateTable ratesOn(LocalDate date) {
+        admitDates(Set.of(date));
+        try {
+            return datedRates.ratesOn(date).get(DATED_RATES_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RequestException(503, "Rates for " + date + " are unavailable");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestException(503, "Interrupted");
+        }
+    }
+
+    /**
+     * Counts the dates against the per-minute budget; dates already served within the minute are free
+     * since the API client has them cached
+     */
+    private void admitDates(Set<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        synchronized (recentDates) {
+            recentDates.values().removeIf(firstAsked -> now - firstAsked > DATE_WINDOW_NANOS);
+            int added = 0;
+            for (LocalDate date : dates) {
+                if (!recentDates.containsKey(date)) {
+                    added++;
+                }
+            }
+            if (recentDates.size() + added > datesPerMinute) {
+                throw new RequestException(429, "Too many different dates, at most " + datesPerMinute + " per minute");
+            }
+            for (LocalDate date : dates) {
+                recentDates.putIfAbsent(date, now);
+            }
+        }
+    }
+
+    private String requireKnownCurrency(Map<String, String> query, String name) {
+        String code = require(query, name).trim().toUpperCase(Locale.ROOT);
+        if (currentRates().getRateTable().indexOf(code) < 0) {
+            throw new RequestException(404, "Rate not found for " + code);
+        }
+        return code;
+    }
+
+    private static void requireGet(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            throw new RequestException(405, "Method not allowed");
+        }
+    }
+
+    private static String require(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isBlank()) {
+            throw new RequestException(400, "Missing parameter " + name);
+        }
+        return value;
+    }
+
+    private static double parseAmount(String value) {
+        try {
+            double amount = Double.parseDouble(value.trim());
+            if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+                throw new NumberFormatException();
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount " + value);
+        }
+    }
+
+    private LocalDate parseDate(String value) {
+        LocalDate date;
+        try {
+            date = LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date " + value);
+        }
+        LocalDate today = LocalDate.now();
+        if (date.isAfter(today) || date.isBefore(today.minusDays(maxDateAgeDays))) {
+            throw new IllegalArgumentException("Date must be between " + today.minusDays(maxDateAgeDays) + " and " + today);
+        }
+        return date;
+    }
+
+    private static String error(String message) {
+        StringBuilder json = new StringBuilder(message.length() + 16).append("{\"error\":\"");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append("\"}").toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String param : rawQuery.split("&")) {
+                int equals = param.indexOf('=');
+                if (equals > 0) {
+                    query.put(URLDecoder.decode(param.substring(0, equals), StandardCharsets.UTF_8),
+                            URLDecoder.decode(param.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Headless entry point: {@code --serve [--host 127.0.0.1] [--port 8090]}.
+     * Starts from the last snapshot, loads live rates and keeps them fresh with the same poll as the
+     * app, and serves until the process is stopped.
+     */
+    public static void serve(String[] args) throws IOException, InterruptedException {
+        Map<String, String> flags = MockFastForexServer.parseFlags(args);
+        String host = flags.getOrDefault("host", "127.0.0.1");
+        int port = Integer.parseInt(flags.getOrDefault("port", "8090"));
+
+        ApiMetrics.registerMBeans();
+        RateSnapshot snapshot = RateSnapshot.load(RateSnapshot.defaultPath());
+        boolean fromSnapshot = snapshot != null && snapshot.isUsable();
+        AtomicReference<CrossRateMatrix> matrix = new AtomicReference<>(
+                new CrossRateMatrix(fromSnapshot ? snapshot.getRates() : RateTable.EMPTY));
+        RateHistory history = fromSnapshot ? snapshot.getHistory() : new RateHistory();
+
+        ConversionServer server = new ConversionServer(host, port, matrix::get, history, Currency::updateHistory,
+                RateSource.api()).start();
+        System.out.println("Conversion API listening on " + server.getBaseUrl()
+                + (fromSnapshot ? " with snapshot rates" : ", waiting for live rates"));
+
+        RateTable live = Currency.getCurrencyRatesFromAPIAsync().exceptionally(error -> null).join();
+        if (live != null && !live.isEmpty()) {
+            matrix.set(new CrossRateMatrix(live));
+        }
+
+        // Every update swaps in a new matrix, so requests never see one that is half updated.
+        // As in the app, an interval of 0 turns polling off
+        long intervalSeconds = Config.getLong("refresh.intervalSeconds", 60);
+        RateRefreshScheduler refresh = intervalSeconds <= 0 ? null
+                : new RateRefreshScheduler(() -> Currency.pollCurrencyRatesAsync().join(), intervalSeconds,
+                update -> matrix.set(new CrossRateMatrix(update.table())), Runnable::run);
+        if (refresh != null) {
+            refresh.start(matrix.get().getRateTable().copy());
+        }
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (refresh != null) {
+                refresh.close();
+            }
+            server.close();
+            System.out.println(server);
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+}
@@ -0,0 +1,28 @@
+package com.currencyApp.server;
+
+import java.util.Arrays;
+
+/**
+ * Throughput and latency percentiles of one load-test run
+ *
+ * @param latencies    latency of every request in nanoseconds
+ * @param failures     requests that failed
+ * @param elapsedNanos wall-clock time of the run
+ */
+record LatencyReport(long[] latencies, long failures, long elapsedNanos) {
+    void print() {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("requests=%d failures=%d time=%.2fs throughput=%.0f req/s%n",
+                sorted.length, failures, seconds, sorted.length / seconds);
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+}
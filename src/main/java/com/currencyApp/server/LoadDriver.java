@@ -0,0 +1,121 @@
+package com.currencyApp.server;
+
+import com.currencyApp.model.Currency;
+import com.currencyApp.model.EndpointType;
+import com.currencyApp.model.ExchangeRateService;
+import com.currencyApp.util.RequestScheduler.Priority;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the app's client stack (scheduler, retries, decoding) against the mock server, or any
+ * other base URL, and prints throughput and latency percentiles. Requests are a seeded mix of
+ * all four endpoints with different dates, so runs are reproducible and coalescing or caching
+ * does not hide the calls.
+ * <p>
+ * {@code --requests 20000 --concurrency 64 [--url http://host:port]} plus the mock server's flags,
+ * see {@link MockFastForexServer.Options#fromFlags}. Client settings can be overridden with
+ * -Dfxflip.* properties as usual; quota and cache are opened up unless set explicitly.
+ */
+public class LoadDriver {
+    private static final String[] BASES = {"MAD", "USD", "EUR"};
+    private static final String[] TARGETS = {"EUR", "CNY", "USD", "SAR"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> flags = MockFastForexServer.parseFlags(args);
+        int requests = Integer.parseInt(flags.getOrDefault("requests", "20000"));
+        int concurrency = Integer.parseInt(flags.getOrDefault("concurrency", "64"));
+        long seed = Long.parseLong(flags.getOrDefault("seed", "42"));
+
+        MockFastForexServer server = null;
+        String baseUrl = flags.get("url");
+        if (baseUrl == null) {
+            server = new MockFastForexServer(MockFastForexServer.Options.fromFlags(flags).port(0)).start();
+            baseUrl = server.getBaseUrl();
+        }
+
+        // Must be in place before ExchangeRateService reads its configuration
+        System.setProperty("fxflip.baseUrl", baseUrl);
+        System.getProperties().putIfAbsent("fxflip.quota.requestsPerMinute", String.valueOf(Integer.MAX_VALUE));
+        System.getProperties().putIfAbsent("fxflip.quota.burst", String.valueOf(concurrency));
+        System.getProperties().putIfAbsent("fxflip.quota.maxConcurrent", String.valueOf(concurrency));
+        System.getProperties().putIfAbsent("fxflip.cache.maxEntries", "0");
+        ExchangeRateService.setErrorListener((endpoint, error, servedStale) -> {
+        });
+
+        System.out.println("Driving " + requests + " requests at concurrency " + concurrency + " against " + baseUrl);
+        try {
+            run(requests, concurrency, seed, 0);          // warm-up: JIT, connections
+            LatencyReport result = run(requests, concurrency, seed, requests);
+            result.print();
+            if (server != null) {
+                System.out.println(server);
+            }
+            System.out.println(ExchangeRateService.getScheduler());
+            for (EndpointType type : EndpointType.values()) {
+                if (type != EndpointType.OTHER) {
+                    System.out.println(ExchangeRateService.getMetrics(type));
+                }
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    /**
+     * @param offset shifts the request numbers so the measured run asks for other dates than the warm-up
+     */
+    private static LatencyReport run(int requests, int concurrency, long seed, int offset) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicLong failures = new AtomicLong();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int n = i;
+            long start = System.nanoTime();
+            request(new SplittableRandom(seed * 31 + offset + n), yesterday, offset + n).whenComplete((value, error) -> {
+                latencies[n] = System.nanoTime() - start;
+                if (error != null || value == null) {
+                    failures.incrementAndGet();
+                }
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await();
+        return new LatencyReport(latencies, failures.get(), System.nanoTime() - startedAt);
+    }
+
+    private static CompletableFuture<?> request(SplittableRandom random, LocalDate yesterday, int n) {
+        String base = BASES[random.nextInt(BASES.length)];
+        String target = TARGETS[random.nextInt(TARGETS.length)];
+        LocalDate date = yesterday.minusDays(n % 3650);
+
+        switch (random.nextInt(4)) {
+            case 0:
+                return ExchangeRateService.getResponseAsync("/currencies?", Currency.CURRENCY_LIST_DECODER, Priority.NORMAL);
+            case 1:
+                return ExchangeRateService.getResponseAsync("/fetch-all?from=" + base + "&",
+                        Currency.RATE_TABLE_DECODER, Priority.NORMAL);
+            case 2:
+                return ExchangeRateService.getResponseAsync("/historical?date=" + date + "&from=" + base + "&",
+                        Currency.HISTORICAL_DECODER, Priority.NORMAL);
+            default:
+                return ExchangeRateService.getResponseAsync("/time-series?from=" + base + "&to=" + target
+                                + "&start=" + date.minusDays(13) + "&end=" + date + "&",
+                        Currency.TIME_SERIES_DECODER, Priority.NORMAL);
+        }
+    }
+}
@@ -0,0 +1,516 @@
+package com.currencyApp.server;
+
+import com.currencyApp.util.CurrencyFormatter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the FastForex API, for load tests and benchmarks that must not depend on
+ * a key or the network. Serves /currencies, /fetch-all, /historical and /time-series in the
+ * API's JSON shapes from generated rates, with configurable latency, error rate, throttling
+ * and payload size.
+ * Everything is derived from a seed: the same seed gives the same rates, and request n always
+ * gets the same latency and fault decision, whatever order the requests arrive in.
+ * Point the app at it with -Dfxflip.baseUrl=http://127.0.0.1:8089
+ */
+public class MockFastForexServer implements AutoCloseable {
+    public enum Latency {
+        /** Every response takes the configured time */
+        FIXED,
+        /** Uniform between 0 and twice the configured time */
+        UNIFORM,
+        /** Exponential with the configured time as mean, i.e. a long tail */
+        EXPONENTIAL
+    }
+
+    /**
+     * Server settings; every setter returns this so they can be chained
+     */
+    public static class Options {
+        private String host = "127.0.0.1";
+        private int port = 8089;
+        private int threads = 64;
+        private Latency latency = Latency.FIXED;
+        private long latencyMillis = 0;
+        private double errorRate = 0;
+        private double requestsPerSecond = 0;
+        private int currencies = 160;
+        private long seed = 42;
+
+        public Options host(String host) {
+            this.host = host;
+            return this;
+        }
+
+        /**
+         * @param port port to listen on, 0 for any free one
+         */
+        public Options port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Options threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Options latency(Latency latency, long millis) {
+            this.latency = latency;
+            this.latencyMillis = millis;
+            return this;
+        }
+
+        /**
+         * @param errorRate share of requests answered with a 500, 0 to 1
+         */
+        public Options errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * @param requestsPerSecond requests served per second before answering 429, 0 for no limit
+         */
+        public Options requestsPerSecond(double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+            return this;
+        }
+
+        /**
+         * @param currencies number of currencies in every response, which sets the payload size
+         */
+        public Options currencies(int currencies) {
+            this.currencies = currencies;
+            return this;
+        }
+
+        public Options seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Reads --host, --port, --threads, --latency, --latency-ms, --error-rate, --rps,
+         * --currencies and --seed; other flags are left to the caller
+         */
+        public static Options fromFlags(Map<String, String> flags) {
+            Options options = new Options();
+            options.host = flags.getOrDefault("host", options.host);
+            options.port = Integer.parseInt(flags.getOrDefault("port", String.valueOf(options.port)));
+            options.threads = Integer.parseInt(flags.getOrDefault("threads", String.valueOf(options.threads)));
+            options.latency = Latency.valueOf(flags.getOrDefault("latency", options.latency.name()).toUpperCase(Locale.ROOT));
+            options.latencyMillis = Long.parseLong(flags.getOrDefault("latency-ms", String.valueOf(options.latencyMillis)));
+            options.errorRate = Double.parseDouble(flags.getOrDefault("error-rate", String.valueOf(options.errorRate)));
+            options.requestsPerSecond = Double.parseDouble(flags.getOrDefault("rps", String.valueOf(options.requestsPerSecond)));
+            options.currencies = Integer.parseInt(flags.getOrDefault("currencies", String.valueOf(options.currencies)));
+            options.seed = Long.parseLong(flags.getOrDefault("seed", String.valueOf(options.seed)));
+            return options;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("latency=%s %dms, errorRate=%.3f, rps=%s, currencies=%d, seed=%d",
+                    latency, latencyMillis, errorRate, requestsPerSecond > 0 ? requestsPerSecond : "unlimited",
+                    currencies, seed);
+        }
+    }
+
+    // The currencies the app asks for by name are always part of the generated set
+    private static final List<String> APP_CURRENCIES = List.of("MAD", "USD", "EUR", "CNY", "SAR");
+
+    private final Options options;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // Generated data: code -> id, and per currency its units per USD and how it moves from day to day
+    private final String[] codes;
+    private final String[] names;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final double[] unitsPerUsd;
+    private final double[] amplitude;
+    private final double[] phase;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    // Throttling bucket, guarded by this
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    public MockFastForexServer(Options options) throws IOException {
+        this.options = options;
+        this.tokens = Math.max(1, options.requestsPerSecond);
+
+        List<String[]> currencies = generateCurrencies(options.currencies);
+        int size = currencies.size();
+        codes = new String[size];
+        names = new String[size];
+        unitsPerUsd = new double[size];
+        amplitude = new double[size];
+        phase = new double[size];
+        for (int id = 0; id < size; id++) {
+            codes[id] = currencies.get(id)[0];
+            names[id] = currencies.get(id)[1];
+            ids.put(codes[id], id);
+
+            SplittableRandom random = new SplittableRandom(options.seed * 31 + codes[id].hashCode());
+            unitsPerUsd[id] = codes[id].equals("USD") ? 1 : Math.exp(random.nextDouble(Math.log(0.0005), Math.log(20000)));
+            amplitude[id] = codes[id].equals("USD") ? 0 : random.nextDouble(0.002, 0.03);
+            phase[id] = random.nextDouble(0, 2 * Math.PI);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(options.threads, runnable ->
+                new Thread(runnable, "fxflip-mock-" + threadCount.incrementAndGet()));
+        server = HttpServer.create(new InetSocketAddress(options.host, options.port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public MockFastForexServer start() {
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return the value to use as "baseUrl"
+     */
+    public String getBaseUrl() {
+        return "http://" + options.host + ":" + getPort();
+    }
+
+    public long getServedCount() {
+        return served.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MockFastForexServer[%s, served=%d, failed=%d, throttled=%d, bytes=%d]",
+                getBaseUrl(), getServedCount(), getFailedCount(), getThrottledCount(), getBytesSent());
+    }
+
+    /**
+     * Units of the target currency per one unit of the base currency on the given day
+     */
+    double rate(int base, int target, long epochDay) {
+        return unitsPerUsd(target, epochDay) / unitsPerUsd(base, epochDay);
+    }
+
+    private double unitsPerUsd(int id, long epochDay) {
+        return unitsPerUsd[id] * (1 + amplitude[id] * Math.sin(epochDay / 9.0 + phase[id]));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            // Decisions for request n only depend on the seed and n
+            SplittableRandom random = new SplittableRandom(options.seed * 1_000_003 + sequence.getAndIncrement());
+            sleep(nextLatency(random));
+
+            long remaining = tryAcquire();
+            if (remaining < 0) {
+                throttled.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.getResponseHeaders().set("X-RateLimit-Remaining", "0");
+                exchange.getResponseHeaders().set("X-RateLimit-Reset", "1");
+                send(exchange, 429, "{\"error\":\"Rate limit exceeded\"}");
+                return;
+            }
+            if (options.requestsPerSecond > 0) {
+                exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(remaining));
+            }
+            if (random.nextDouble() < options.errorRate) {
+                failed.incrementAndGet();
+                send(exchange, 500, "{\"error\":\"Injected failure\"}");
+                return;
+            }
+
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String body;
+            switch (exchange.getRequestURI().getPath()) {
+                case "/currencies":
+                    body = currencies();
+                    break;
+                case "/fetch-all":
+                    body = fetchAll(query);
+                    break;
+                case "/historical":
+                    body = historical(query);
+                    break;
+                case "/time-series":
+                    body = timeSeries(query);
+                    break;
+                default:
+                    send(exchange, 404, "{\"error\":\"Unknown endpoint\"}");
+                    return;
+            }
+            served.incrementAndGet();
+            send(exchange, 200, body);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            send(exchange, 400, "{\"error\":\"" + e.getMessage().replace('"', '\'') + "\"}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String currencies() {
+        StringBuilder json = new StringBuilder(codes.length * 32).append("{\"currencies\":{");
+        for (int id = 0; id < codes.length; id++) {
+            if (id > 0) {
+                json.append(',');
+            }
+            json.append('"').append(codes[id]).append("\":\"").append(names[id]).append('"');
+        }
+        return json.append("},\"ms\":1}").toString();
+    }
+
+    private String fetchAll(Map<String, String> query) {
+        int base = idOf(query.getOrDefault("from", "USD"));
+        long today = LocalDate.now().toEpochDay();
+        StringBuilder json = new StringBuilder(codes.length * 20)
+                .append("{\"base\":\"").append(codes[base]).append("\",\"results\":");
+        appendRates(json, base, today);
+        return json.append(",\"updated\":\"").append(LocalDate.ofEpochDay(today)).append(" 00:00:00\",\"ms\":1}").toString();
+    }
+
+    private String historical(Map<String, String> query) {
+        int base = idOf(query.getOrDefault("from", "USD"));
+        LocalDate date = LocalDate.parse(require(query, "date"));
+        StringBuilder json = new StringBuilder(codes.length * 20)
+                .append("{\"date\":\"").append(date).append("\",\"base\":\"").append(codes[base]).append("\",\"results\":");
+        appendRates(json, base, date.toEpochDay());
+        return json.append(",\"ms\":1}").toString();
+    }
+
+    private String timeSeries(Map<String, String> query) {
+        int base = idOf(query.getOrDefault("from", "USD"));
+        LocalDate start = LocalDate.parse(require(query, "start"));
+        LocalDate end = LocalDate.parse(require(query, "end"));
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end is before start");
+        }
+        String[] targets = require(query, "to").split(",");
+
+        StringBuilder json = new StringBuilder(256 + targets.length * 32 * (int) (end.toEpochDay() - start.toEpochDay() + 1))
+                .append("{\"base\":\"").append(codes[base]).append("\",\"start\":\"").append(start)
+                .append("\",\"end\":\"").append(end).append("\",\"interval\":\"P1D\",\"results\":{");
+        for (int i = 0; i < targets.length; i++) {
+            int target = idOf(targets[i]);
+            json.append(i > 0 ? ",\"" : "\"").append(codes[target]).append("\":{");
+            for (long day = start.toEpochDay(); day <= end.toEpochDay(); day++) {
+                if (day > start.toEpochDay()) {
+                    json.append(',');
+                }
+                json.append('"').append(LocalDate.ofEpochDay(day)).append("\":");
+                CurrencyFormatter.appendFixed(json, rate(base, target, day), 6);
+            }
+            json.append('}');
+        }
+        return json.append("},\"ms\":1}").toString();
+    }
+
+    private void appendRates(StringBuilder json, int base, long epochDay) {
+        json.append('{');
+        for (int id = 0; id < codes.length; id++) {
+            if (id > 0) {
+                json.append(',');
+            }
+            json.append('"').append(codes[id]).append("\":");
+            CurrencyFormatter.appendFixed(json, rate(base, id, epochDay), 5);
+        }
+        json.append('}');
+    }
+
+    private int idOf(String code) {
+        Integer id = ids.get(code.toUpperCase(Locale.ROOT));
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown currency " + code);
+        }
+        return id;
+    }
+
+    private static String require(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        return value;
+    }
+
+    private long nextLatency(SplittableRandom random) {
+        long mean = options.latencyMillis;
+        if (mean <= 0) {
+            return 0;
+        }
+        switch (options.latency) {
+            case UNIFORM:
+                return random.nextLong(2 * mean + 1);
+            case EXPONENTIAL:
+                return (long) (-mean * Math.log(1 - random.nextDouble()));
+            default:
+                return mean;
+        }
+    }
+
+    /**
+     * @return tokens left after taking one, or -1 if the request has to be throttled
+     */
+    private synchronized long tryAcquire() {
+        if (options.requestsPerSecond <= 0) {
+            return Long.MAX_VALUE;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(options.requestsPerSecond,
+                tokens + (now - refilledAt) * options.requestsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        refilledAt = now;
+        if (tokens < 1) {
+            return -1;
+        }
+        tokens -= 1;
+        return (long) tokens;
+    }
+
+    private void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        bytesSent.addAndGet(bytes.length);
+    }
+
+    private static void sleep(long millis) {
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String param : rawQuery.split("&")) {
+                int equals = param.indexOf('=');
+                if (equals > 0) {
+                    query.put(URLDecoder.decode(param.substring(0, equals), StandardCharsets.UTF_8),
+                            URLDecoder.decode(param.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return query;
+    }
+
+    /**
+     * The app's own currencies first, then the JDK's ISO currencies, then synthetic ones
+     * until there are as many as asked for; sorted by code like the real API
+     */
+    private static List<String[]> generateCurrencies(int count) {
+        Map<String, String> available = new LinkedHashMap<>();
+        java.util.Currency.getAvailableCurrencies().stream()
+                .sorted((a, b) -> a.getCurrencyCode().compareTo(b.getCurrencyCode()))
+                .forEach(currency -> available.put(currency.getCurrencyCode(), currency.getDisplayName(Locale.ENGLISH)));
+
+        Set<String> chosen = new LinkedHashSet<>(APP_CURRENCIES);
+        for (String code : available.keySet()) {
+            if (chosen.size() >= count) {
+                break;
+            }
+            chosen.add(code);
+        }
+        for (int i = 0; chosen.size() < count; i++) {
+            chosen.add("Z" + i);
+        }
+
+        List<String[]> currencies = new ArrayList<>(chosen.size());
+        for (String code : chosen) {
+            currencies.add(new String[]{code, available.getOrDefault(code, "Synthetic Currency " + code)});
+        }
+        currencies.sort((a, b) -> a[0].compareTo(b[0]));
+        return currencies;
+    }
+
+    /**
+     * Parses "--name value" and "--name=value" pairs
+     */
+    static Map<String, String> parseFlags(String[] args) {
+        Map<String, String> flags = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+            String flag = args[i].substring(2);
+            int equals = flag.indexOf('=');
+            if (equals >= 0) {
+                flags.put(flag.substring(0, equals), flag.substring(equals + 1));
+            } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                flags.put(flag, args[++i]);
+            } else {
+                flags.put(flag, "true");
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Runs the server until the process is stopped, e.g.
+     * {@code --port 8089 --latency exponential --latency-ms 80 --error-rate 0.02 --rps 50 --currencies 160}
+     */
+    public static void main(String[] args) throws IOException {
+        Options options = Options.fromFlags(parseFlags(args));
+        MockFastForexServer server = new MockFastForexServer(options).start();
+        System.out.println("Mock FastForex listening on " + server.getBaseUrl() + " (" + options + ")");
+        System.out.println("Run the app against it with -Dfxflip.baseUrl=" + server.getBaseUrl());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(server)));
+    }
+}
@@ -20,6 +20,8 @@ public class ComboBoxElement extends HBox {
     private final ComboBox<Currency> comboBox;
     private final Label nameLabel;
     private final StringBuilder keyBuffer = new StringBuilder();
+    private final StringBuilder lastKey = new StringBuilder(1);
+    private CurrencySearchIndex searchIndex = CurrencySearchIndex.EMPTY;
     private long lastKeyPressTime = 0;
     private static final long KEY_TIMEOUT = 1000; // 1 second timeout for keystrokes
     private int lastMatchIndex = -1;
@@ -36,13 +38,8 @@ public class ComboBoxElement extends HBox {
         this.setMaxWidth(309);
         this.setMinWidth(309);
 
-        // Create a sorted copy of the currency list to avoid modifying the original
-        List<Currency> sortedList = new java.util.ArrayList<>(currencyList);
-        sortedList.sort(Comparator.comparing(Currency::getName));
-
         // Create and configure the ComboBox
         comboBox = new ComboBox<>();
-        comboBox.getItems().addAll(sortedList);
         comboBox.setPrefWidth(86);
         comboBox.getStylesheets().add(Objects.requireNonNull(getClass().getResource("/com/currencyApp/assets/Style/ComboBox.css")).toExternalForm());
 
@@ -53,11 +50,7 @@ public class ComboBoxElement extends HBox {
         nameLabel.setFont(Font.font("Segoe UI", FontWeight.SEMI_BOLD, 20));
         HBox.setHgrow(nameLabel, Priority.ALWAYS);
 
-        // Set default currency if provided
-        if (defaultCurrency != null) {
-            comboBox.getSelectionModel().select(defaultCurrency);
-            nameLabel.setText(defaultCurrency.getName());
-        }
+        setCurrencies(currencyList, defaultCurrency);
 
         // Handle selection changes
         comboBox.setOnAction(e -> {
@@ -76,6 +69,35 @@ public class ComboBoxElement extends HBox {
         this.getChildren().addAll(nameLabel, comboBox); // Label on left, ComboBox on right
     }
 
+    /**
+     * Replaces the available currencies, e.g. once the live list replaces the one from the snapshot.
+     * The current selection is kept if its code is still available, otherwise the default is selected.
+     */
+    public void setCurrencies(List<Currency> currencyList, Currency defaultCurrency) {
+        // Create a sorted copy of the currency list to avoid modifying the original
+        List<Currency> sortedList = new java.util.ArrayList<>(currencyList);
+        sortedList.sort(Comparator.comparing(Currency::getName));
+
+        String selectedCode = getSelectedItem();
+        Currency toSelect = defaultCurrency;
+        for (Currency currency : sortedList) {
+            if (currency.getCode().equals(selectedCode)) {
+                toSelect = currency;
+                break;
+            }
+        }
+
+        comboBox.getItems().setAll(sortedList);
+        searchIndex = new CurrencySearchIndex(sortedList);
+        lastMatchIndex = -1;
+
+        // Set default currency if provided
+        if (toSelect != null) {
+            comboBox.getSelectionModel().select(toSelect);
+            nameLabel.setText(toSelect.getName());
+        }
+    }
+
     private void setupKeyboardNavigation() {
         comboBox.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
             // Only handle if ComboBox is focused
@@ -102,13 +124,15 @@ public class ComboBoxElement extends HBox {
 
                 lastKeyPressTime = currentTime;
 
-                keyBuffer.append(event.getText().toUpperCase());
+                // The search index ignores case, so the typed text is used as is
+                keyBuffer.append(event.getText());
 
-                boolean found = selectItemStartingWith(keyBuffer.toString());
+                boolean found = selectItemStartingWith(keyBuffer);
 
                 if (!found && !keyBuffer.isEmpty()) {
-                    char latestChar = keyBuffer.charAt(keyBuffer.length() - 1);
-                    selectItemStartingWith(String.valueOf(latestChar));
+                    lastKey.setLength(0);
+                    lastKey.append(keyBuffer.charAt(keyBuffer.length() - 1));
+                    selectItemStartingWith(lastKey);
                 }
 
                 if (!comboBox.isShowing()) {
@@ -122,46 +146,19 @@ public class ComboBoxElement extends HBox {
 
 
     /**
-     * Selects the first item in the ComboBox that starts with the given prefix
+     * Selects the next item in the ComboBox whose name or code starts with the given prefix
      * @return true if an item was found and selected, false otherwise
      */
-    private boolean selectItemStartingWith(String prefix) {
-        if (prefix == null || prefix.isEmpty()) {
-            return false;
-        }
-
-        String upperPrefix = prefix.toUpperCase();
-        List<Currency> matchingItems = new java.util.ArrayList<>();
-
-        // Find all matching items
-        for (Currency currency : comboBox.getItems()) {
-            if (currency.getName().toUpperCase().startsWith(upperPrefix)) {
-                matchingItems.add(currency);
-            }
-        }
-
-        if (matchingItems.isEmpty()) {
+    private boolean selectItemStartingWith(CharSequence prefix) {
+        int index = searchIndex.findNextMatch(prefix, lastMatchIndex);
+        if (index < 0) {
             return false;
         }
 
-        // Cycle through matches
-        int nextIndex = 0;
-
-        // If the last match exists in this match list, go to the next
-        if (lastMatchIndex != -1) {
-            Currency lastMatchedCurrency = comboBox.getItems().get(lastMatchIndex);
-            int currentMatchPos = matchingItems.indexOf(lastMatchedCurrency);
-            if (currentMatchPos != -1) {
-                nextIndex = (currentMatchPos + 1) % matchingItems.size();
-            }
-        }
-
-        Currency toSelect = matchingItems.get(nextIndex);
-        comboBox.getSelectionModel().select(toSelect);
+        Currency toSelect = comboBox.getItems().get(index);
+        comboBox.getSelectionModel().select(index);
         nameLabel.setText(toSelect.getName());
-
-        // Update lastMatchIndex
-        lastMatchIndex = comboBox.getItems().indexOf(toSelect);
+        lastMatchIndex = index;
 
         return true;
     }
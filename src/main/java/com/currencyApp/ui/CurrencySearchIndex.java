@@ -0,0 +1,220 @@
+package com.currencyApp.ui;
+
+import com.currencyApp.model.Currency;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Type-ahead index over the items of a currency combo box, built once per item list.
+ * Names and ISO codes are upper-cased and sorted, so the items starting with a prefix are a
+ * contiguous range found by binary search. The item indexes of that range are also kept in
+ * blocks sorted by item index, so the next item to select is found by binary search as well
+ * instead of walking the range. Searching compares the typed characters in place and allocates
+ * nothing, which keeps every keystroke cheap even for long instrument lists.
+ */
+public class CurrencySearchIndex {
+    public static final CurrencySearchIndex EMPTY = new CurrencySearchIndex(List.of());
+
+    // Sorted, upper-cased names and codes
+    private final String[] names;
+    private final String[] codes;
+
+    // Item indexes in the order of the sorted names and codes at level 0; at level k every aligned
+    // block of 2^k entries is sorted by item index
+    private final int[][] nameItems;
+    private final int[][] codeItems;
+
+    // Upper-cased name and code by item index
+    private final String[] itemNames;
+    private final String[] itemCodes;
+
+    /**
+     * @param items the items in display order; search results are indexes into this list
+     */
+    public CurrencySearchIndex(List<Currency> items) {
+        int size = items.size();
+        itemNames = new String[size];
+        itemCodes = new String[size];
+        for (int i = 0; i < size; i++) {
+            itemNames[i] = normalize(items.get(i).getName());
+            itemCodes[i] = normalize(items.get(i).getCode());
+        }
+
+        int[] nameOrder = sortedOrder(itemNames);
+        int[] codeOrder = sortedOrder(itemCodes);
+        names = new String[size];
+        codes = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = itemNames[nameOrder[i]];
+            codes[i] = itemCodes[codeOrder[i]];
+        }
+        nameItems = sortedBlocks(nameOrder);
+        codeItems = sortedBlocks(codeOrder);
+    }
+
+    /**
+     * Finds the item whose name or code starts with the prefix, ignoring case.
+     * Repeating the search with the index it returned cycles through all matching items in item order.
+     *
+     * @param prefix         what the user typed
+     * @param lastMatchIndex the item selected by the previous search, or -1
+     * @return the index of the item to select, or -1 if nothing starts with the prefix
+     */
+    public int findNextMatch(CharSequence prefix, int lastMatchIndex) {
+        if (prefix == null || prefix.length() == 0) {
+            return -1;
+        }
+
+        // Continue after the last match if it still matches, otherwise start at the top
+        int after = lastMatchIndex >= 0 && lastMatchIndex < itemNames.length
+                && (comparePrefix(itemNames[lastMatchIndex], prefix) == 0
+                || comparePrefix(itemCodes[lastMatchIndex], prefix) == 0)
+                ? lastMatchIndex : -1;
+
+        int nameStart = lowerBound(names, prefix, false);
+        int nameEnd = lowerBound(names, prefix, true);
+        int codeStart = lowerBound(codes, prefix, false);
+        int codeEnd = lowerBound(codes, prefix, true);
+
+        // Smallest matching item after the last match, otherwise the smallest overall to wrap around to
+        int next = Math.min(firstItemAfter(nameItems, nameStart, nameEnd, after),
+                firstItemAfter(codeItems, codeStart, codeEnd, after));
+        if (next == Integer.MAX_VALUE && after >= 0) {
+            next = Math.min(firstItemAfter(nameItems, nameStart, nameEnd, -1),
+                    firstItemAfter(codeItems, codeStart, codeEnd, -1));
+        }
+        return next != Integer.MAX_VALUE ? next : -1;
+    }
+
+    public int size() {
+        return itemNames.length;
+    }
+
+    /**
+     * Splits [start, end) into aligned blocks, smallest first from both ends, and binary-searches each
+     *
+     * @return the smallest item index above "after" among the entries, or Integer.MAX_VALUE if there is none
+     */
+    private static int firstItemAfter(int[][] items, int start, int end, int after) {
+        int best = Integer.MAX_VALUE;
+        for (int level = 0; start < end; level++) {
+            int width = 1 << level;
+            if ((start & width) != 0) {
+                best = Math.min(best, firstAbove(items[level], start, start + width, after));
+                start += width;
+            }
+            if (start < end && (end & width) != 0) {
+                best = Math.min(best, firstAbove(items[level], end - width, end, after));
+                end -= width;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the first value above "after" in the sorted block [from, to), or Integer.MAX_VALUE
+     */
+    private static int firstAbove(int[] block, int from, int to, int after) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (block[mid] <= after) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < to ? block[low] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param past false for the first entry starting with the prefix (or after it),
+     *             true for the first entry after all that start with it
+     */
+    private static int lowerBound(String[] sorted, CharSequence prefix, boolean past) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparePrefix(sorted[mid], prefix);
+            if (cmp < 0 || (past && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares an upper-cased value with the upper-cased prefix
+     *
+     * @return 0 if the value starts with the prefix, otherwise the order of the value relative to it
+     */
+    private static int comparePrefix(String value, CharSequence prefix) {
+        int length = Math.min(value.length(), prefix.length());
+        for (int i = 0; i < length; i++) {
+            int diff = value.charAt(i) - Character.toUpperCase(prefix.charAt(i));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return value.length() < prefix.length() ? -1 : 0;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toUpperCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Bottom-up merge sort that keeps every pass: level k has each aligned block of 2^k entries sorted
+     */
+    private static int[][] sortedBlocks(int[] order) {
+        int levels = 1;
+        while (1 << levels <= order.length) {
+            levels++;
+        }
+        int[][] blocks = new int[levels][];
+        blocks[0] = order;
+        for (int level = 1; level < levels; level++) {
+            int[] previous = blocks[level - 1];
+            int[] merged = new int[order.length];
+            int half = 1 << (level - 1);
+            for (int start = 0; start < order.length; start += 2 * half) {
+                int left = start;
+                int leftEnd = Math.min(start + half, order.length);
+                int right = leftEnd;
+                int rightEnd = Math.min(start + 2 * half, order.length);
+                for (int i = start; i < rightEnd; i++) {
+                    merged[i] = right >= rightEnd || (left < leftEnd && previous[left] < previous[right])
+                            ? previous[left++] : previous[right++];
+                }
+            }
+            blocks[level] = merged;
+        }
+        return blocks;
+    }
+
+    private static int[] sortedOrder(String[] values) {
+        Integer[] order = new Integer[values.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> values[i]));
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+}
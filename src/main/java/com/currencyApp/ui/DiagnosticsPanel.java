@@ -0,0 +1,92 @@
+package com.currencyApp.ui;
+
+import com.currencyApp.metrics.EndpointMetrics;
+import com.currencyApp.model.EndpointType;
+import com.currencyApp.model.ExchangeRateService;
+import com.currencyApp.model.ResponseCache;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.Objects;
+
+/**
+ * Live table of the API client's statistics: per endpoint latency percentiles, decode time,
+ * bytes received, errors by status and cache hit ratio, plus the scheduler queue and circuit
+ * breakers. The labels are created once and only their text is updated, once a second while
+ * the panel is started.
+ * Must be used on the JavaFX Application Thread.
+ */
+public class DiagnosticsPanel extends VBox {
+    private static final String[] COLUMNS = {"Endpoint", "Responses", "p50 ms", "p99 ms", "Max ms",
+            "Decode p50", "KB in", "Cache hits", "Errors", "Circuit"};
+    private static final EndpointType[] ENDPOINTS = {EndpointType.CURRENCIES, EndpointType.FETCH_ALL,
+            EndpointType.HISTORICAL, EndpointType.TIME_SERIES};
+
+    private final Label[][] cells = new Label[ENDPOINTS.length][COLUMNS.length];
+    private final Label summary = new Label();
+    private final Timeline refresh = new Timeline(new KeyFrame(Duration.seconds(1), event -> update()));
+
+    public DiagnosticsPanel() {
+        super(10);
+        getStyleClass().add("diagnostics-panel");
+        getStylesheets().add(Objects.requireNonNull(getClass().getResource("/com/currencyApp/assets/Style/Diagnostics.css")).toExternalForm());
+
+        GridPane table = new GridPane();
+        table.getStyleClass().add("diagnostics-table");
+        for (int column = 0; column < COLUMNS.length; column++) {
+            Label header = new Label(COLUMNS[column]);
+            header.getStyleClass().add("diagnostics-header");
+            table.add(header, column, 0);
+        }
+        for (int row = 0; row < ENDPOINTS.length; row++) {
+            for (int column = 0; column < COLUMNS.length; column++) {
+                Label cell = new Label();
+                cell.getStyleClass().add(column == 0 ? "diagnostics-endpoint" : "diagnostics-cell");
+                cells[row][column] = cell;
+                table.add(cell, column, row + 1);
+            }
+            cells[row][0].setText(ENDPOINTS[row].getPath());
+        }
+
+        summary.getStyleClass().add("diagnostics-summary");
+        getChildren().addAll(table, summary);
+
+        refresh.setCycleCount(Timeline.INDEFINITE);
+        update();
+    }
+
+    public void start() {
+        update();
+        refresh.play();
+    }
+
+    public void stop() {
+        refresh.stop();
+    }
+
+    private void update() {
+        for (int row = 0; row < ENDPOINTS.length; row++) {
+            EndpointMetrics metrics = ExchangeRateService.getMetrics(ENDPOINTS[row]);
+            Label[] cell = cells[row];
+            cell[1].setText(String.valueOf(metrics.getResponseCount()));
+            cell[2].setText(String.format("%.1f", metrics.getLatencyP50Millis()));
+            cell[3].setText(String.format("%.1f", metrics.getLatencyP99Millis()));
+            cell[4].setText(String.format("%.1f", metrics.getLatencyMaxMillis()));
+            cell[5].setText(String.format("%.1f", metrics.getDecodeP50Millis()));
+            cell[6].setText(String.format("%.1f", metrics.getBytesReceived() / 1024.0));
+            cell[7].setText(metrics.getCacheHitCount() + metrics.getCacheMissCount() == 0
+                    ? "-" : String.format("%.0f%%", metrics.getCacheHitRatio() * 100));
+            cell[8].setText(metrics.getErrorCount() == 0 ? "0" : metrics.getErrorsByStatus().toString());
+            cell[9].setText(ExchangeRateService.getCircuitBreaker(ENDPOINTS[row]).getState().name());
+        }
+
+        ResponseCache<?, ?> cache = ExchangeRateService.getCache();
+        summary.setText(String.format("Cache: %d entries, %.0f KB, %.0f%% hits, %d evictions    Queued calls: %d",
+                cache.size(), cache.sizeInBytes() / 1024.0, cache.getHitRatio() * 100, cache.getEvictionCount(),
+                ExchangeRateService.getScheduler().getQueueDepth()));
+    }
+}
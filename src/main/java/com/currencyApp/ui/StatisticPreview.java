@@ -1,225 +1,264 @@
 package com.currencyApp.ui;
 
-import javafx.geometry.Insets;
+import com.currencyApp.metrics.ChartBuildEvent;
+import com.currencyApp.model.RateSeries;
+import com.currencyApp.util.CurrencyFormatter;
 import javafx.geometry.Pos;
-import javafx.geometry.Side;
 import javafx.scene.Node;
 import javafx.scene.chart.*;
 import javafx.scene.control.Label;
 import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
-import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
-import javafx.scene.text.TextAlignment;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
+/**
+ * 14-day trend chart of several currencies, in percent against each one's first day.
+ * The chart, its series and their points are created once; {@link #setHistory} only changes the
+ * values that differ, so a refresh costs a few property updates instead of a new scene graph.
+ * All styling comes from StatisticPreview.css, and one tooltip is shared by every point.
+ */
 public class StatisticPreview extends VBox {
-    // Modern color palette
-    private final Color[] CHART_COLORS = {
-            Color.web("#7AEA8A"),
-            Color.web("#8265FC"),
-            Color.web("#DE754F"),
-            Color.web("#D94C4E"),
-    };
+    // Colors are defined in the stylesheet as .series-color-0 to .series-color-3
+    private static final int SERIES_COLORS = 4;
 
+    private final String baseCurrency;
+    private final LineChart<String, Number> chart;
+    private final VBox legend = new VBox(6);
+    private final Tooltip pointTooltip = new Tooltip();
+    private final Consumer<String> warnings;
+
+    // Chart series and legend entry of every currency charted so far, in the order they were added
+    private final Map<String, XYChart.Series<String, Number>> seriesByCurrency = new LinkedHashMap<>();
+    private final Map<String, Label> legendByCurrency = new HashMap<>();
+
+    /**
+     * @param baseCurrency the currency every series is quoted against
+     * @param history      one series per target currency, oldest point first
+     * @param warnings     told which currencies have no usable data, e.g. the status bar
+     */
     public StatisticPreview(
             String baseCurrency,
-            List<String> targetCurrencies,
-            Map<String, Map<String, Float>> historicalRates
+            List<RateSeries> history,
+            Consumer<String> warnings
     ) {
-        setSpacing(10);
-        setPadding(new Insets(15));
-        setStyle("-fx-background-color: #010101;");
+        this.baseCurrency = baseCurrency;
+        this.warnings = warnings;
+        getStyleClass().add("statistic-preview");
+        getStylesheets().add(Objects.requireNonNull(getClass().getResource("/com/currencyApp/assets/Style/StatisticPreview.css")).toExternalForm());
         setAlignment(Pos.CENTER);
 
-        Label titleLabel = new Label("14-Day Exchange Rate Trend");
-        titleLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
-        titleLabel.setTextFill(Color.WHITE);
-        titleLabel.setTextAlignment(TextAlignment.LEFT);
-
-        LineChart<String, Number> percentageChart = createPercentageChart(targetCurrencies, historicalRates);
-        percentageChart.setPrefHeight(268);
-        percentageChart.setMinHeight(268);
-        percentageChart.setMaxHeight(268);
-        percentageChart.setPrefWidth(Double.MAX_VALUE);
-        VBox.setVgrow(percentageChart, Priority.ALWAYS);
-
-        getChildren().addAll(percentageChart);
-    }
-
-    private LineChart<String, Number> createPercentageChart(
-            List<String> targetCurrencies,
-            Map<String, Map<String, Float>> historicalRates
-    ) {
         CategoryAxis xAxis = new CategoryAxis();
         NumberAxis yAxis = new NumberAxis();
-
-        // Axis styling (unchanged)
-        xAxis.setLabel("");
-        xAxis.setTickLabelFont(Font.font("Segoe UI", FontWeight.LIGHT, 10));
-        xAxis.setTickLabelFill(Color.web("#B2B2B2"));
         xAxis.setTickLabelRotation(45);
-        xAxis.setStyle("-fx-tick-label-fill: #B2B2B2;");
-
-        yAxis.setLabel("");
-        yAxis.setTickLabelFont(Font.font("Segoe UI", FontWeight.LIGHT, 10));
-        yAxis.setTickLabelFill(Color.web("#B2B2B2"));
         yAxis.setAutoRanging(true);
-        yAxis.setStyle("-fx-tick-label-fill: #B2B2B2;");
 
-        LineChart<String, Number> chart = new LineChart<>(xAxis, yAxis);
-        chart.setLegendSide(Side.RIGHT);
+        chart = new LineChart<>(xAxis, yAxis);
+        chart.getStyleClass().add("statistic-chart");
         chart.setAnimated(false);
         chart.setCreateSymbols(true);
-        chart.setHorizontalGridLinesVisible(true);
+        chart.setLegendVisible(false); // replaced by our own, whose labels take the series colors
         chart.setVerticalGridLinesVisible(false);
-        chart.setStyle("-fx-background-color: #010101;");
-
-        // Add series for each currency with error handling
-        int colorIndex = 0;
-        for (String currency : targetCurrencies) {
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName(currency);
-
-            Map<String, Float> dateRateMap = historicalRates.get(currency);
-            if (dateRateMap == null || dateRateMap.isEmpty()) {
-                System.err.println("Warning: No historical data for " + currency);
-                continue;
-            }
+        chart.setPrefHeight(268);
+        chart.setMinHeight(268);
+        chart.setMaxHeight(268);
+        chart.setPrefWidth(Double.MAX_VALUE);
+        HBox.setHgrow(chart, Priority.ALWAYS);
 
-            List<String> dates = new ArrayList<>(dateRateMap.keySet());
-            try {
-                Collections.sort(dates); // Sort dates chronologically
-            } catch (Exception e) {
-                System.err.println("Error sorting dates for " + currency + ": " + e.getMessage());
-                continue;
+        // One tooltip for all points, filled in for the point under the mouse
+        chart.addEventHandler(MouseEvent.MOUSE_ENTERED_TARGET, this::showPointTooltip);
+        chart.addEventHandler(MouseEvent.MOUSE_EXITED_TARGET, event -> {
+            if (event.getTarget() instanceof Node node && node.getStyleClass().contains("chart-line-symbol")) {
+                pointTooltip.hide();
             }
+        });
 
-            // Get first valid rate as baseline
-            Float firstDayValue = getFirstValidRate(dates, dateRateMap);
-            if (firstDayValue == null || firstDayValue == 0f) {
-                System.err.println("Invalid baseline rate for " + currency + " (zero or missing)");
-                continue;
-            }
+        legend.getStyleClass().add("statistic-legend");
+        HBox chartRow = new HBox(chart, legend);
+        chartRow.setAlignment(Pos.CENTER);
+        getChildren().add(chartRow);
+        setHistory(history);
+    }
 
-            for (String date : dates) {
-                Float currentValue = dateRateMap.get(date);
-                if (currentValue == null) {
-                    System.err.println("Missing rate for " + currency + " on " + date);
-                    continue;
-                }
+    /**
+     * Shows new history, updating the existing series and points in place.
+     * Currencies that have no usable data keep their series, empty and without a legend entry,
+     * so every currency keeps its color.
+     */
+    public void setHistory(List<RateSeries> history) {
+        ChartBuildEvent event = new ChartBuildEvent();
+        event.begin();
 
-                try {
-                    double percentageChange = ((currentValue - firstDayValue) / firstDayValue) * 100;
-                    String formattedDate = formatDateSafely(date);
-                    series.getData().add(new XYChart.Data<>(formattedDate, percentageChange));
-                } catch (ArithmeticException e) {
-                    System.err.println("Calculation error for " + currency + " on " + date + ": " + e.getMessage());
-                }
+        List<String> unusable = new ArrayList<>();
+        for (RateSeries rates : history) {
+            String currency = rates.getTarget();
+            XYChart.Series<String, Number> series = seriesByCurrency.get(currency);
+            if (series == null) {
+                series = addSeries(currency);
             }
-
-            if (!series.getData().isEmpty()) {
-                chart.getData().add(series);
-                colorIndex++;
+            boolean usable = updatePoints(series, rates);
+            if (!usable) {
+                unusable.add(currency);
             }
+            Label legendItem = legendByCurrency.get(currency);
+            legendItem.setVisible(usable);
+            legendItem.setManaged(usable);
         }
 
-        // Apply styling (unchanged)
-        applyChartStyles(chart);
-        return chart;
+        commitChartEvent(event);
+        if (!unusable.isEmpty()) {
+            warnings.accept("No usable history for " + String.join(", ", unusable));
+        }
     }
 
-    private Float getFirstValidRate(List<String> dates, Map<String, Float> dateRateMap) {
-        for (String date : dates) {
-            Float rate = dateRateMap.get(date);
-            if (rate != null && rate != 0f) {
-                return rate;
+    private XYChart.Series<String, Number> addSeries(String currency) {
+        int color = seriesByCurrency.size() % SERIES_COLORS;
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName(currency);
+        seriesByCurrency.put(currency, series);
+        chart.getData().add(series);
+        // The series' line exists once it is in the chart; its points get the class as they are added
+        series.getNode().getStyleClass().add("series-color-" + color);
+
+        Label legendItem = new Label(currency);
+        legendItem.getStyleClass().addAll("statistic-legend-item", "series-color-" + color);
+        legendByCurrency.put(currency, legendItem);
+        legend.getChildren().add(legendItem);
+        return series;
+    }
+
+    /**
+     * Moves the series to the given rates
+     *
+     * @return false if the rates have no usable baseline, in which case the series is emptied
+     */
+    private boolean updatePoints(XYChart.Series<String, Number> series, RateSeries rates) {
+        List<XYChart.Data<String, Number>> points = series.getData();
+        int firstAdded = updatePercentagePoints(points, rates);
+        if (firstAdded < 0) {
+            return false;
+        }
+        // Points added to a charted series get their symbol node right away, which has to take the series color
+        String color = colorClassOf(series);
+        for (int i = firstAdded; i < points.size(); i++) {
+            Node symbol = points.get(i).getNode();
+            if (symbol != null) {
+                symbol.getStyleClass().add(color);
             }
         }
-        return null;
+        return true;
     }
 
-    private String formatDateSafely(String date) {
-        try {
-            if (date.length() >= 10) { // YYYY-MM-DD format
-                return date.substring(8) + "-" + date.substring(5, 7);
+    /**
+     * Sets the points to the change in percent of each day against the first valid one: points are
+     * updated where they differ, and only the surplus is removed or the shortfall added
+     *
+     * @return index of the first added point (the size of the list if none were), or -1 if the rates
+     * have no usable baseline, in which case the list is emptied
+     */
+    public static int updatePercentagePoints(List<XYChart.Data<String, Number>> points, RateSeries rates) {
+        double firstDayValue = getFirstValidRate(rates);
+        if (rates.isEmpty() || Double.isNaN(firstDayValue)) {
+            points.clear();
+            return -1;
+        }
+
+        int common = Math.min(points.size(), rates.size());
+        for (int i = 0; i < common; i++) {
+            XYChart.Data<String, Number> point = points.get(i);
+            String day = formatDay(rates.getEpochDay(i));
+            double change = percentChange(rates.getRate(i), firstDayValue);
+            if (!day.equals(point.getXValue())) {
+                point.setXValue(day);
+            }
+            if (point.getYValue() == null || point.getYValue().doubleValue() != change) {
+                point.setYValue(change);
+            }
+        }
+        if (points.size() > rates.size()) {
+            points.subList(rates.size(), points.size()).clear();
+        } else if (points.size() < rates.size()) {
+            List<XYChart.Data<String, Number>> added = new ArrayList<>(rates.size() - common);
+            for (int i = common; i < rates.size(); i++) {
+                added.add(new XYChart.Data<>(formatDay(rates.getEpochDay(i)), percentChange(rates.getRate(i), firstDayValue)));
             }
-            return date; // Fallback to raw date if unexpected format
-        } catch (Exception e) {
-            System.err.println("Date formatting error for " + date + ": " + e.getMessage());
-            return date;
+            points.addAll(added);
         }
+        return common;
     }
 
-    private void applyChartStyles(LineChart<String, Number> chart) {
-        chart.lookupAll(".chart-plot-background").forEach(node ->
-                node.setStyle("-fx-background-color: #010101;")
-        );
-        chart.applyCss();
-
-        chart.lookupAll(".chart-legend").forEach(node ->
-                node.setStyle("-fx-background-color: transparent;")
-        );
-
-        chart.lookupAll(".chart-horizontal-grid-lines").forEach(node ->
-                node.setStyle("-fx-stroke: transparent;"));
-
-        for (int i = 0; i < chart.getData().size(); i++) {
-            XYChart.Series<String, Number> series = chart.getData().get(i);
-            Color color = CHART_COLORS[i % CHART_COLORS.length];
-            String colorHex = colorToHex(color);
-
-            Node line = series.getNode().lookup(".chart-series-line");
-            if (line != null) {
-                line.setStyle(
-                        "-fx-stroke: " + colorHex + ";" +
-                                "-fx-stroke-width: 2px;"
-                );
+    private static String colorClassOf(XYChart.Series<String, Number> series) {
+        for (String styleClass : series.getNode().getStyleClass()) {
+            if (styleClass.startsWith("series-color-")) {
+                return styleClass;
             }
+        }
+        return "series-color-0";
+    }
 
-            for (XYChart.Data<String, Number> data : series.getData()) {
-                if (data.getNode() != null) {
-                    data.getNode().setStyle(
-                            "-fx-background-radius: 5px;" +
-                                    "-fx-border-radius: 5px;" +
-                                    "-fx-min-width: 10px;" +
-                                    "-fx-min-height: 10px;" +
-                                    "-fx-max-width: 10px;" +
-                                    "-fx-max-height: 10px;" +
-                                    "-fx-pref-width: 10px;" +
-                                    "-fx-pref-height: 10px;" +
-                                    "-fx-background-color: black;" +
-                                    "-fx-border-color: " + colorHex + ";" +
-                                    "-fx-border-width: 2px;"
-                    );
-
-                    // Update the tooltip style if needed
-                    Tooltip.install(data.getNode(), new Tooltip(String.format("%s\nDate: %s\nChange: %.2f%%",
-                            series.getName(), data.getXValue(), data.getYValue())));
-
+    private void showPointTooltip(MouseEvent event) {
+        if (!(event.getTarget() instanceof Node node) || !node.getStyleClass().contains("chart-line-symbol")) {
+            return;
+        }
+        for (XYChart.Series<String, Number> series : chart.getData()) {
+            for (XYChart.Data<String, Number> point : series.getData()) {
+                if (point.getNode() == node) {
+                    StringBuilder text = new StringBuilder(48)
+                            .append(series.getName()).append("\nDate: ").append(point.getXValue()).append("\nChange: ");
+                    CurrencyFormatter.appendFixed(text, point.getYValue().doubleValue(), 2).append('%');
+                    pointTooltip.setText(text.toString());
+                    pointTooltip.show(node, event.getScreenX() + 12, event.getScreenY() + 12);
+                    return;
                 }
             }
         }
-        // Set legend text colors to match series colors
-        List<Node> legendItems = new ArrayList<>(chart.lookupAll(".chart-legend-item")); // Convert Set to List
-        for (int i = 0; i < legendItems.size(); i++) {
-            Node legendItem = legendItems.get(i);
-            Color color = CHART_COLORS[i % CHART_COLORS.length];
-            String colorHex = colorToHex(color);
-            Node textNode = legendItem.lookup(".chart-legend-item-text");
-            if (textNode != null) {
-                textNode.setStyle("-fx-text-fill: " + colorHex + ";");
+    }
+
+    private void commitChartEvent(ChartBuildEvent event) {
+        event.end();
+        if (event.shouldCommit()) {
+            StringBuilder pair = new StringBuilder(baseCurrency).append('/');
+            int points = 0;
+            for (XYChart.Series<String, Number> series : chart.getData()) {
+                pair.append(series.getName()).append(',');
+                points += series.getData().size();
+            }
+            pair.setLength(pair.length() - 1);
+            event.pair = pair.toString();
+            event.series = chart.getData().size();
+            event.points = points;
+            event.commit();
+        }
+    }
+
+    private static double percentChange(double rate, double firstDayValue) {
+        return ((rate - firstDayValue) / firstDayValue) * 100;
+    }
+
+    private static double getFirstValidRate(RateSeries rates) {
+        for (int i = 0; i < rates.size(); i++) {
+            double rate = rates.getRate(i);
+            if (rate != 0 && !Double.isNaN(rate)) {
+                return rate;
             }
         }
+        return Double.NaN;
     }
 
-    private String colorToHex(Color color) {
-        return String.format("#%02X%02X%02X",
-                (int) (color.getRed() * 255),
-                (int) (color.getGreen() * 255),
-                (int) (color.getBlue() * 255));
+    /**
+     * Axis label of a day, e.g. "01-05" for the 1st of May
+     */
+    private static String formatDay(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        int day = date.getDayOfMonth();
+        int month = date.getMonthValue();
+        return new String(new char[]{
+                (char) ('0' + day / 10), (char) ('0' + day % 10), '-', (char) ('0' + month / 10), (char) ('0' + month % 10)
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.currencyApp.ui;
+
+import javafx.animation.PauseTransition;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.util.Duration;
+
+import java.util.Objects;
+
+/**
+ * One-line, non-modal status area for errors and warnings.
+ * A message stays up for a few seconds; the same message arriving again while it is shown
+ * only bumps a counter instead of stacking up, so a burst of failed calls reads as one line.
+ * Must be used on the JavaFX Application Thread.
+ */
+public class StatusBar extends HBox {
+    private static final Duration DISPLAY_TIME = Duration.seconds(8);
+
+    private final Label messageLabel = new Label();
+    private final Tooltip detailTooltip = new Tooltip();
+    private final PauseTransition hideTimer = new PauseTransition(DISPLAY_TIME);
+    private String currentMessage;
+    private int repeatCount;
+
+    public StatusBar() {
+        getStyleClass().add("status-bar");
+        getStylesheets().add(Objects.requireNonNull(getClass().getResource("/com/currencyApp/assets/Style/StatusBar.css")).toExternalForm());
+        HBox.setHgrow(this, Priority.ALWAYS);
+
+        messageLabel.getStyleClass().add("status-message");
+        messageLabel.setTooltip(detailTooltip);
+        messageLabel.setOnMouseClicked(event -> clear());
+        messageLabel.setVisible(false);
+        getChildren().add(messageLabel);
+
+        hideTimer.setOnFinished(event -> clear());
+    }
+
+    public void showError(String message) {
+        show(message, "status-error");
+    }
+
+    public void showWarning(String message) {
+        show(message, "status-warning");
+    }
+
+    public void clear() {
+        hideTimer.stop();
+        currentMessage = null;
+        repeatCount = 0;
+        messageLabel.setVisible(false);
+    }
+
+    private void show(String message, String styleClass) {
+        if (message.equals(currentMessage)) {
+            repeatCount++;
+        } else {
+            currentMessage = message;
+            repeatCount = 1;
+        }
+
+        messageLabel.getStyleClass().removeAll("status-error", "status-warning");
+        messageLabel.getStyleClass().add(styleClass);
+        messageLabel.setText(repeatCount > 1 ? message + " (×" + repeatCount + ")" : message);
+        detailTooltip.setText(message);
+        messageLabel.setVisible(true);
+        hideTimer.playFromStart();
+    }
+}
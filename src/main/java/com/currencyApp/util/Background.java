@@ -0,0 +1,46 @@
+package com.currencyApp.util;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shared executors for work that must stay off the JavaFX Application Thread,
+ * plus an executor that hands results back to it.
+ */
+public final class Background {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    // Daemon threads so a pending fetch never keeps the JVM alive after the window closes
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fxflip-worker-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Runs continuations on the JavaFX Application Thread */
+    public static final Executor FX = Platform::runLater;
+
+    private Background() {
+    }
+
+    /**
+     * Runs a blocking task, typically a network call, on a background thread
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, EXECUTOR);
+    }
+
+    public static CompletableFuture<Void> run(Runnable task) {
+        return CompletableFuture.runAsync(task, EXECUTOR);
+    }
+
+    public static ExecutorService executor() {
+        return EXECUTOR;
+    }
+}
@@ -0,0 +1,97 @@
+package com.currencyApp.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling a failing service for a while instead of letting every caller wait for its own timeout.
+ * After a run of consecutive failures the breaker opens and rejects calls; once the open period is over
+ * a single probe call is let through, which either closes the breaker again or reopens it.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    /**
+     * @param failureThreshold consecutive failures that open the breaker
+     * @param openMillis       how long it stays open before a probe call is allowed
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock current time in milliseconds
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        if (failureThreshold < 1 || openMillis < 0) {
+            throw new IllegalArgumentException("failureThreshold must be positive and openMillis not negative");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @return true if the call may go ahead; the caller must then report its outcome
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() - openedAt < openMillis) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return milliseconds until a probe call is allowed, or 0 if the breaker is not open
+     */
+    public synchronized long getRemainingOpenMillis() {
+        return state == State.OPEN ? Math.max(0, openedAt + openMillis - clock.getAsLong()) : 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CircuitBreaker[" + state + ", failures=" + consecutiveFailures + "]";
+    }
+}
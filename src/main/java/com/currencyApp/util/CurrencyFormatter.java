@@ -1,9 +1,33 @@
 package com.currencyApp.util;
 
+import java.io.IOException;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
 /**
- * Utility class for consistent currency rate formatting across the application
+ * Utility class for consistent currency rate formatting across the application.
+ * Output is identical to String.format("%.4f") / ("%.2f%%") in the default format locale,
+ * but the common case is written digit by digit into a reusable buffer instead of going
+ * through a new Formatter on every call.
  */
 public class CurrencyFormatter {
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+    private static final String[] FORMATS = {
+            "%.0f", "%.1f", "%.2f", "%.3f", "%.4f", "%.5f", "%.6f", "%.7f", "%.8f", "%.9f"
+    };
+
+    // Above this the scaled value no longer has enough fraction bits to tell which way it rounds
+    private static final double MAX_SCALED = 1e12;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[32]);
+
+    // Whether the default format locale writes numbers with ASCII digits, '-' and '.'
+    private static volatile LocaleCheck localeCheck = new LocaleCheck(null, false);
+
+    private record LocaleCheck(Locale locale, boolean plain) {
+    }
 
     /**
      * Format a currency rate with a consistent number of decimal places
@@ -13,7 +37,7 @@ public class CurrencyFormatter {
      * @return The formatted rate as a string
      */
     public static String formatConversionRate(double rate) {
-        return String.format("%.4f", rate);
+        return format(rate, 4, false);
     }
 
     /**
@@ -24,7 +48,7 @@ public class CurrencyFormatter {
      * @return The formatted rate as a string
      */
     public static String formatExchangeRate(double rate) {
-        return String.format("%.4f", rate);
+        return format(rate, 4, false);
     }
 
     /**
@@ -35,7 +59,7 @@ public class CurrencyFormatter {
      * @return The formatted percentage as a string
      */
     public static String formatPercentageChange(double percentageChange) {
-        return String.format("%.2f%%", percentageChange);
+        return format(percentageChange, 2, true);
     }
 
     /**
@@ -46,6 +70,124 @@ public class CurrencyFormatter {
      * @return The formatted value as a string
      */
     public static String formatChartValue(double value) {
-        return String.format("%.4f%%", value);
+        return format(value, 4, true);
+    }
+
+    /**
+     * Appends the value with a fixed number of decimals, as String.format("%.Nf") would
+     *
+     * @param out      where to append
+     * @param value    the value to format
+     * @param decimals number of decimals, 0 to 9
+     * @return out, for chaining
+     */
+    public static StringBuilder appendFixed(StringBuilder out, double value, int decimals) {
+        char[] buffer = BUFFER.get();
+        int length = writeFixed(value, decimals, buffer);
+        if (length < 0) {
+            return out.append(String.format(FORMATS[decimals], value));
+        }
+        return out.append(buffer, 0, length);
+    }
+
+    /**
+     * Appends the value with a fixed number of decimals, as String.format("%.Nf") would
+     *
+     * @param out      where to append
+     * @param value    the value to format
+     * @param decimals number of decimals, 0 to 9
+     */
+    public static void appendFixed(Appendable out, double value, int decimals) throws IOException {
+        if (out instanceof StringBuilder builder) {
+            appendFixed(builder, value, decimals);
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        int length = writeFixed(value, decimals, buffer);
+        if (length < 0) {
+            out.append(String.format(FORMATS[decimals], value));
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            out.append(buffer[i]);
+        }
+    }
+
+    private static String format(double value, int decimals, boolean percent) {
+        char[] buffer = BUFFER.get();
+        int length = writeFixed(value, decimals, buffer);
+        if (length < 0) {
+            return String.format(FORMATS[decimals] + (percent ? "%%" : ""), value);
+        }
+        if (percent) {
+            buffer[length++] = '%';
+        }
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * Writes the value rounded HALF_UP to the given number of decimals, the way Formatter does.
+     * Formatter rounds the shortest decimal representation of the double (Double.toString's digits),
+     * not its exact binary value; both round the same way unless the scaled value lies within a few
+     * ulps of a tie, so those values (and anything non-finite, huge or in a non-ASCII locale) are
+     * left to String.format.
+     *
+     * @return number of chars written, or -1 if the caller has to fall back to String.format
+     */
+    private static int writeFixed(double value, int decimals, char[] buffer) {
+        if (decimals < 0 || decimals >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("decimals must be between 0 and 9: " + decimals);
+        }
+        if (!isPlainLocale() || Double.isNaN(value) || Double.isInfinite(value)) {
+            return -1;
+        }
+
+        double scaled = Math.abs(value) * POWERS_OF_TEN[decimals];
+        if (!(scaled < MAX_SCALED)) {
+            return -1;
+        }
+        long whole = (long) scaled;
+        double fraction = scaled - whole; // exact, the scaled value is far below 2^52
+        if (Math.abs(fraction - 0.5) < Math.max(1e-9, 8 * Math.ulp(scaled))) {
+            return -1;
+        }
+        long units = fraction > 0.5 ? whole + 1 : whole;
+
+        // Digits are written right to left, then the sign goes in front
+        int end = buffer.length;
+        int position = end;
+        for (int i = 0; i < decimals; i++) {
+            buffer[--position] = (char) ('0' + units % 10);
+            units /= 10;
+        }
+        if (decimals > 0) {
+            buffer[--position] = '.';
+        }
+        do {
+            buffer[--position] = (char) ('0' + units % 10);
+            units /= 10;
+        } while (units > 0);
+
+        // Formatter keeps the sign of negative zero and of values that round to zero
+        int length = end - position;
+        int offset = 0;
+        if (Double.doubleToRawLongBits(value) < 0) {
+            buffer[offset++] = '-';
+        }
+        System.arraycopy(buffer, position, buffer, offset, length);
+        return offset + length;
+    }
+
+    private static boolean isPlainLocale() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        LocaleCheck check = localeCheck;
+        if (check.locale != locale) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            check = new LocaleCheck(locale, symbols.getZeroDigit() == '0'
+                    && symbols.getDecimalSeparator() == '.'
+                    && symbols.getMinusSign() == '-');
+            localeCheck = check;
+        }
+        return check.plain;
     }
-}
\ No newline at end of file
+}
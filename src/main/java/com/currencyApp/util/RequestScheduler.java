@@ -0,0 +1,223 @@
+package com.currencyApp.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Admits calls to a rate-limited API one by one: a token bucket caps the request rate,
+ * a semaphore caps how many calls run at once, and waiting calls start in priority order
+ * (FIFO within a priority). The API's own rate-limit signals can pause admission for a while.
+ */
+public class RequestScheduler {
+    public enum Priority {
+        /** Something the user is looking at right now, e.g. the pair they just picked */
+        INTERACTIVE,
+        /** Regular loading of the visible sections */
+        NORMAL,
+        /** Backfill and polling nobody is waiting for */
+        BACKGROUND
+    }
+
+    private final PriorityBlockingQueue<Task<?>> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Semaphore concurrency;
+
+    // Token bucket, guarded by this
+    private final double permitsPerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+    private long pausedUntil = refilledAt;
+
+    // Metrics, per priority
+    private final AtomicIntegerArray queued = new AtomicIntegerArray(Priority.values().length);
+    private final AtomicLongArray started = new AtomicLongArray(Priority.values().length);
+    private final AtomicLongArray totalWaitNanos = new AtomicLongArray(Priority.values().length);
+    private final AtomicLongArray maxWaitNanos = new AtomicLongArray(Priority.values().length);
+
+    /**
+     * @param permitsPerSecond sustained request rate
+     * @param burst            requests that may be made at once after a quiet period
+     * @param maxConcurrent    calls that may be in flight at the same time
+     */
+    public RequestScheduler(double permitsPerSecond, int burst, int maxConcurrent) {
+        if (permitsPerSecond <= 0 || burst < 1 || maxConcurrent < 1) {
+            throw new IllegalArgumentException("permitsPerSecond, burst and maxConcurrent must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.tokens = burst;
+        this.concurrency = new Semaphore(maxConcurrent);
+
+        Thread dispatcher = new Thread(this::dispatch, "fxflip-scheduler");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Queues a call; it is started once a token and a concurrency slot are free and no
+     * higher-priority call is waiting
+     *
+     * @param call starts the call and returns its future
+     * @return future completed with the call's result
+     */
+    public <T> CompletableFuture<T> submit(Priority priority, Supplier<CompletableFuture<T>> call) {
+        Task<T> task = new Task<>(priority, sequence.getAndIncrement(), call);
+        queued.incrementAndGet(priority.ordinal());
+        queue.add(task);
+        return task.result;
+    }
+
+    /**
+     * Stops admitting calls for a while, e.g. after a 429 with Retry-After
+     */
+    public synchronized void pauseFor(long millis) {
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        if (until - pausedUntil > 0) {
+            pausedUntil = until;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Aligns the bucket with the quota the API reports as left
+     */
+    public synchronized void limitTokens(long remaining) {
+        // Credit the time so far first, or it would be added on top of the limit at the next refill
+        refill(System.nanoTime());
+        tokens = Math.min(tokens, Math.max(0, remaining));
+    }
+
+    /**
+     * @return calls waiting to start
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueDepth(Priority priority) {
+        return queued.get(priority.ordinal());
+    }
+
+    /**
+     * @return calls started so far with the priority
+     */
+    public long getStartedCount(Priority priority) {
+        return started.get(priority.ordinal());
+    }
+
+    /**
+     * @return average time calls of the priority waited in the queue, in milliseconds
+     */
+    public double getAverageWaitMillis(Priority priority) {
+        long count = started.get(priority.ordinal());
+        return count == 0 ? 0 : totalWaitNanos.get(priority.ordinal()) / (count * 1e6);
+    }
+
+    /**
+     * @return longest time a call of the priority waited in the queue, in milliseconds
+     */
+    public double getMaxWaitMillis(Priority priority) {
+        return maxWaitNanos.get(priority.ordinal()) / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("RequestScheduler[queued=").append(getQueueDepth());
+        for (Priority priority : Priority.values()) {
+            sb.append(", ").append(priority).append("(avgWaitMs=");
+            CurrencyFormatter.appendFixed(sb, getAverageWaitMillis(priority), 1).append(", started=")
+                    .append(getStartedCount(priority)).append(')');
+        }
+        return sb.append(']').toString();
+    }
+
+    private void dispatch() {
+        while (true) {
+            try {
+                concurrency.acquire();
+                // Take a token only once there is work, so a pause or a cut in the quota that came
+                // while idle holds back the next call; the waiting task goes back in line so that
+                // whichever task is best once the token is free gets it
+                queue.add(queue.take());
+                acquireToken();
+                start(queue.poll());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private synchronized void acquireToken() throws InterruptedException {
+        while (true) {
+            long now = System.nanoTime();
+            refill(now);
+
+            long waitNanos;
+            if (now - pausedUntil < 0) {
+                waitNanos = pausedUntil - now;
+            } else if (tokens >= 1) {
+                tokens -= 1;
+                return;
+            } else {
+                waitNanos = (long) Math.ceil((1 - tokens) / permitsPerNano);
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, Math.max(waitNanos, 1));
+        }
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+    }
+
+    private <T> void start(Task<T> task) {
+        int priority = task.priority.ordinal();
+        long waited = System.nanoTime() - task.queuedAt;
+        queued.decrementAndGet(priority);
+        started.incrementAndGet(priority);
+        totalWaitNanos.addAndGet(priority, waited);
+        maxWaitNanos.accumulateAndGet(priority, waited, Math::max);
+
+        CompletableFuture<T> call;
+        try {
+            call = task.call.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((value, error) -> {
+            concurrency.release();
+            if (error != null) {
+                task.result.completeExceptionally(error);
+            } else {
+                task.result.complete(value);
+            }
+        });
+    }
+
+    private static final class Task<T> implements Comparable<Task<?>> {
+        final Priority priority;
+        final long sequence;
+        final Supplier<CompletableFuture<T>> call;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final long queuedAt = System.nanoTime();
+
+        Task(Priority priority, long sequence, Supplier<CompletableFuture<T>> call) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.call = call;
+        }
+
+        @Override
+        public int compareTo(Task<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
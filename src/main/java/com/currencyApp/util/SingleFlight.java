@@ -0,0 +1,62 @@
+package com.currencyApp.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent calls for the same key into a single in-flight operation.
+ * Every caller asking for a key while it is still running receives the same future;
+ * once it completes the key is released and the next call starts a fresh operation.
+ *
+ * @param <K> key type, e.g. an API endpoint
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the in-flight future for the key, or starts a new one with the loader
+     *
+     * @param key    the key identifying the operation
+     * @param loader starts the operation when nothing is in flight for the key
+     * @return future shared by all concurrent callers for the key
+     */
+    public CompletableFuture<V> execute(K key, Function<K, CompletableFuture<V>> loader) {
+        CompletableFuture<V> existing = inFlight.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<V> placeholder = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, placeholder);
+        if (existing != null) {
+            return existing;
+        }
+
+        // We own the key: run the loader and release the key before waking up the waiters
+        CompletableFuture<V> started;
+        try {
+            started = loader.apply(key);
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, error) -> {
+            inFlight.remove(key, placeholder);
+            if (error != null) {
+                placeholder.completeExceptionally(error);
+            } else {
+                placeholder.complete(value);
+            }
+        });
+        return placeholder;
+    }
+
+    /**
+     * @return number of operations currently in flight
+     */
+    public int size() {
+        return inFlight.size();
+    }
+}
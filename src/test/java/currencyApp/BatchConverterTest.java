@@ -0,0 +1,123 @@
+package currencyApp;
+
+import com.currencyApp.batch.BatchConverter;
+import com.currencyApp.model.RateSource;
+import com.currencyApp.model.RateTable;
+import junit.framework.TestCase;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for the headless CSV conversion pipeline.
+ */
+public class BatchConverterTest extends TestCase
+{
+    private final Map<LocalDate, AtomicInteger> lookups = new ConcurrentHashMap<>();
+
+    // EUR is worth 0.1 MAD-units more on dated rows, so dated and latest rates differ
+    private final RateSource source = date -> {
+        if ( date != null )
+        {
+            lookups.computeIfAbsent( date, d -> new AtomicInteger() ).incrementAndGet();
+        }
+        double eur = date == null ? 0.1 : 0.2;
+        return CompletableFuture.completedFuture(
+                new RateTable.Builder().put( "MAD", 1 ).put( "EUR", eur ).put( "USD", 0.11 ).build( "MAD" ) );
+    };
+
+    public void testRowsKeepTheirOrderAcrossChunks() throws Exception
+    {
+        StringBuilder csv = new StringBuilder( "amount,from,to,date\n" );
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            csv.append( i ).append( ",MAD,EUR," ).append( i % 2 == 0 ? "2025-05-01" : "" ).append( '\n' );
+        }
+
+        StringWriter out = new StringWriter();
+        BatchConverter.Summary summary = new BatchConverter( source, 4 ).convert( new StringReader( csv.toString() ), out );
+
+        String[] lines = out.toString().split( "\n" );
+        assertEquals( 10_000, summary.rows() );
+        assertEquals( 0, summary.failedRows() );
+        assertEquals( "amount,from,to,date,rate,converted,error", lines[ 0 ] );
+        assertEquals( "9998,MAD,EUR,2025-05-01,0.200000,1999.6000,", lines[ 9999 ] );
+        assertEquals( "9999,MAD,EUR,,0.100000,999.9000,", lines[ 10_000 ] );
+        assertEquals( 1, lookups.get( LocalDate.of( 2025, 5, 1 ) ).get() );
+    }
+
+    public void testBadRowsAreReportedInPlace() throws Exception
+    {
+        String csv = "10,EUR,USD\nabc,EUR,USD\n10,EUR,XXX\n";
+
+        StringWriter out = new StringWriter();
+        BatchConverter.Summary summary = new BatchConverter( source, 2 ).convert( new StringReader( csv ), out );
+
+        String[] lines = out.toString().split( "\n" );
+        assertEquals( 2, summary.failedRows() );
+        assertEquals( "amount,from,to,date,rate,converted,error", lines[ 0 ] );
+        assertEquals( "10,EUR,USD,,1.100000,11.0000,", lines[ 1 ] );
+        assertEquals( "abc,EUR,USD,,,,Invalid amount", lines[ 2 ] );
+        assertEquals( "10,EUR,XXX,,,,No rate for XXX", lines[ 3 ] );
+    }
+
+    public void testMixedDatedAndUndatedRowsLineUp() throws Exception
+    {
+        String csv = "amount,from,to\n10,MAD,EUR\n10,MAD,EUR,2025-05-01\n10,MAD,EUR,,\n10,MAD\n";
+
+        StringWriter out = new StringWriter();
+        BatchConverter.Summary summary = new BatchConverter( source, 2 ).convert( new StringReader( csv ), out );
+
+        String[] lines = out.toString().split( "\n" );
+        assertEquals( 2, summary.failedRows() );
+        assertEquals( "amount,from,to,date,rate,converted,error", lines[ 0 ] );
+        assertEquals( "10,MAD,EUR,,0.100000,1.0000,", lines[ 1 ] );
+        assertEquals( "10,MAD,EUR,2025-05-01,0.200000,2.0000,", lines[ 2 ] );
+        assertEquals( "\"10,MAD,EUR,,\",,,,,,Expected at most 4 fields: amount;from;to;date", lines[ 3 ] );
+        assertEquals( "10,MAD,,,,,Expected amount;from;to[;date]", lines[ 4 ] );
+        for ( String line : lines )
+        {
+            assertEquals( line, 7, line.split( ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1 ).length );
+        }
+    }
+
+    public void testQuotedFields() throws Exception
+    {
+        String csv = "\"10\", \"MAD\" ,EUR,\"2025-05-01\"\n\"1,000\",MAD,EUR\n10,\"MAD,EUR\n10,MA\"D,EUR\n";
+
+        StringWriter out = new StringWriter();
+        new BatchConverter( source, 1 ).convert( new StringReader( csv ), out );
+
+        String[] lines = out.toString().split( "\n" );
+        assertEquals( "10,MAD,EUR,2025-05-01,0.200000,2.0000,", lines[ 1 ] );
+        assertEquals( "\"1,000\",MAD,EUR,,,,Invalid amount", lines[ 2 ] );
+        assertEquals( "\"10,\"\"MAD,EUR\",,,,,,Unterminated quote", lines[ 3 ] );
+        assertEquals( "\"10,MA\"\"D,EUR\",,,,,,Unexpected quote in an unquoted field", lines[ 4 ] );
+    }
+
+    public void testFailedDateIsFetchedAgainByTheNextChunk() throws Exception
+    {
+        AtomicInteger calls = new AtomicInteger();
+        RateSource flaky = date -> calls.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture( new IllegalStateException( "HTTP 503" ) )
+                : source.ratesOn( date );
+        StringBuilder csv = new StringBuilder();
+        for ( int i = 0; i < 5000; i++ )
+        {
+            csv.append( "1,MAD,EUR,2025-06-01\n" );
+        }
+
+        StringWriter out = new StringWriter();
+        BatchConverter.Summary summary = new BatchConverter( flaky, 1 ).convert( new StringReader( csv.toString() ), out );
+
+        // The first chunk of 4096 rows fails together, the second one fetches again
+        assertEquals( 4096, summary.failedRows() );
+        assertEquals( 2, calls.get() );
+        assertTrue( out.toString().endsWith( "1,MAD,EUR,2025-06-01,0.200000,0.2000,\n" ) );
+    }
+}
@@ -0,0 +1,55 @@
+package currencyApp;
+
+import com.currencyApp.util.CircuitBreaker;
+import junit.framework.TestCase;
+
+/**
+ * Tests for the circuit breaker state transitions.
+ */
+public class CircuitBreakerTest extends TestCase
+{
+    private long now = 1000;
+
+    public void testOpensAfterConsecutiveFailures()
+    {
+        CircuitBreaker breaker = new CircuitBreaker( 2, 500, () -> now );
+
+        assertTrue( breaker.tryAcquire() );
+        breaker.onFailure();
+        assertTrue( breaker.tryAcquire() );
+        breaker.onFailure();
+
+        assertEquals( CircuitBreaker.State.OPEN, breaker.getState() );
+        assertFalse( breaker.tryAcquire() );
+        assertEquals( 500, breaker.getRemainingOpenMillis() );
+    }
+
+    public void testSingleProbeClosesAgainOnSuccess()
+    {
+        CircuitBreaker breaker = new CircuitBreaker( 1, 500, () -> now );
+        breaker.onFailure();
+
+        now += 500;
+        assertTrue( breaker.tryAcquire() );
+        assertFalse( breaker.tryAcquire() ); // only one probe at a time
+        breaker.onSuccess();
+
+        assertEquals( CircuitBreaker.State.CLOSED, breaker.getState() );
+        assertTrue( breaker.tryAcquire() );
+    }
+
+    public void testFailedProbeReopens()
+    {
+        CircuitBreaker breaker = new CircuitBreaker( 3, 500, () -> now );
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        now += 600;
+        assertTrue( breaker.tryAcquire() );
+        breaker.onFailure();
+
+        assertEquals( CircuitBreaker.State.OPEN, breaker.getState() );
+        assertFalse( breaker.tryAcquire() );
+    }
+}
@@ -0,0 +1,177 @@
+package currencyApp;
+
+import com.currencyApp.model.CrossRateMatrix;
+import com.currencyApp.model.RateHistory;
+import com.currencyApp.model.RateTable;
+import com.currencyApp.server.ConversionServer;
+import junit.framework.TestCase;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tests the conversion API's endpoints over a fixed set of rates.
+ */
+public class ConversionServerTest extends TestCase
+{
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<String> historyUpdates = new CopyOnWriteArrayList<>();
+    private final List<LocalDate> datesRequested = new CopyOnWriteArrayList<>();
+    private final LocalDate lastWeek = LocalDate.now().minusDays( 7 );
+    private ConversionServer server;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        RateTable latest = new RateTable.Builder().put( "MAD", 1 ).put( "EUR", 0.1 ).put( "USD", 0.11 ).build( "MAD" );
+        RateTable past = new RateTable.Builder().put( "MAD", 1 ).put( "EUR", 0.08 ).put( "USD", 0.1 ).build( "MAD" );
+        CrossRateMatrix matrix = new CrossRateMatrix( latest );
+        RateHistory history = new RateHistory();
+        int day = (int) LocalDate.of( 2025, 5, 1 ).toEpochDay();
+        history.append( "MAD", "EUR", day - 1, 0.09 );
+        history.append( "MAD", "EUR", day, 0.1 );
+
+        server = new ConversionServer( "127.0.0.1", 0, () -> matrix, history,
+                ( store, base, target, days ) ->
+                {
+                    historyUpdates.add( base + "/" + target );
+                    return 0;
+                },
+                date ->
+                {
+                    datesRequested.add( date );
+                    return CompletableFuture.completedFuture( date == null ? latest : past );
+                } ).start();
+    }
+
+    @Override
+    protected void tearDown()
+    {
+        server.close();
+    }
+
+    public void testConvert() throws Exception
+    {
+        HttpResponse<String> response = get( "/convert?from=eur&to=USD&amount=100" );
+
+        assertEquals( 200, response.statusCode() );
+        assertEquals( "{\"from\":\"EUR\",\"to\":\"USD\",\"amount\":100.0000,\"rate\":1.100000,\"converted\":110.0000}", response.body() );
+    }
+
+    public void testConvertOnDate() throws Exception
+    {
+        assertTrue( get( "/convert?from=EUR&to=USD&amount=8&date=" + lastWeek ).body().contains( "\"converted\":10.0000" ) );
+    }
+
+    public void testBatchKeepsOrderAndReportsFailedItems() throws Exception
+    {
+        HttpResponse<String> response = post( "/convert",
+                "[{\"amount\":10,\"from\":\"MAD\",\"to\":\"EUR\"},{\"amount\":1,\"from\":\"MAD\",\"to\":\"XXX\"},{\"amount\":\"2\",\"from\":\"EUR\",\"to\":\"MAD\"}]" );
+
+        assertEquals( 200, response.statusCode() );
+        assertEquals( "{\"results\":["
+                + "{\"from\":\"MAD\",\"to\":\"EUR\",\"amount\":10.0000,\"rate\":0.100000,\"converted\":1.0000},"
+                + "{\"error\":\"Rate not found for XXX\"},"
+                + "{\"from\":\"EUR\",\"to\":\"MAD\",\"amount\":2.0000,\"rate\":10.000000,\"converted\":20.0000}]}", response.body() );
+    }
+
+    public void testRatesAndHistory() throws Exception
+    {
+        assertEquals( "{\"base\":\"EUR\",\"results\":{\"MAD\":10.000000,\"EUR\":1.000000,\"USD\":1.100000}}", get( "/rates?base=EUR" ).body() );
+        assertEquals( "{\"base\":\"MAD\",\"target\":\"EUR\",\"days\":1,\"results\":{\"2025-05-01\":0.100000}}",
+                get( "/history?base=MAD&target=EUR&days=1" ).body() );
+        get( "/history?base=MAD&target=EUR&days=1" );
+        assertEquals( List.of( "MAD/EUR", "MAD/EUR" ), historyUpdates );
+    }
+
+    public void testHistoryRejectsUnknownCurrenciesBeforeFetching() throws Exception
+    {
+        assertEquals( 404, get( "/history?base=MAD&target=XXX" ).statusCode() );
+        assertEquals( 404, get( "/history?base=MAD%26x%3D1&target=EUR" ).statusCode() );
+        assertTrue( historyUpdates.isEmpty() );
+    }
+
+    public void testBatchRequestsEachDateOnce() throws Exception
+    {
+        HttpResponse<String> response = post( "/convert",
+                "[{\"amount\":8,\"from\":\"EUR\",\"to\":\"USD\",\"date\":\"" + lastWeek + "\"},"
+                        + "{\"amount\":1,\"from\":\"MAD\",\"to\":\"EUR\",\"date\":\"" + lastWeek + "\"},"
+                        + "{\"amount\":1,\"from\":\"MAD\",\"to\":\"EUR\",\"date\":\"May 1st\"}]" );
+
+        assertEquals( 200, response.statusCode() );
+        assertTrue( response.body().contains( "\"converted\":10.0000" ) );
+        assertTrue( response.body().contains( "\"converted\":0.0800" ) );
+        assertTrue( response.body().endsWith( "{\"error\":\"Invalid date May 1st\"}]}" ) );
+        assertEquals( List.of( lastWeek ), datesRequested );
+    }
+
+    public void testBatchWithTooManyDates() throws Exception
+    {
+        StringBuilder body = new StringBuilder( "[" );
+        for ( int day = 1; day <= 32; day++ )
+        {
+            body.append( day > 1 ? "," : "" ).append( "{\"amount\":1,\"from\":\"MAD\",\"to\":\"EUR\",\"date\":\"" )
+                    .append( lastWeek.minusDays( day ) ).append( "\"}" );
+        }
+
+        assertEquals( 413, post( "/convert", body.append( "]" ).toString() ).statusCode() );
+        assertTrue( datesRequested.isEmpty() );
+    }
+
+    public void testDatesOutsideTheWindowAreRejected() throws Exception
+    {
+        assertEquals( 400, get( "/convert?from=EUR&to=USD&amount=1&date=" + LocalDate.now().plusDays( 1 ) ).statusCode() );
+        assertEquals( 400, get( "/convert?from=EUR&to=USD&amount=1&date=1999-01-04" ).statusCode() );
+        assertTrue( datesRequested.isEmpty() );
+    }
+
+    public void testNewDatesPerMinuteAreCapped() throws Exception
+    {
+        StringBuilder body = new StringBuilder( "[" );
+        for ( int day = 0; day < 30; day++ )
+        {
+            body.append( day > 0 ? "," : "" ).append( "{\"amount\":1,\"from\":\"MAD\",\"to\":\"EUR\",\"date\":\"" )
+                    .append( lastWeek.minusDays( day ) ).append( "\"}" );
+        }
+        assertEquals( 200, post( "/convert", body.append( "]" ).toString() ).statusCode() );
+
+        // A date served within the minute is still answered, a new one has to wait
+        assertEquals( 200, get( "/convert?from=EUR&to=USD&amount=1&date=" + lastWeek ).statusCode() );
+        assertEquals( 429, get( "/convert?from=EUR&to=USD&amount=1&date=" + lastWeek.plusDays( 1 ) ).statusCode() );
+        assertEquals( 31, datesRequested.size() );
+    }
+
+    public void testErrorsEscapeControlCharacters() throws Exception
+    {
+        HttpResponse<String> response = get( "/convert?from=EUR&to=X%0A%22&amount=1" );
+
+        assertEquals( 400, response.statusCode() );
+        assertEquals( "{\"error\":\"Rate not found for X\\u000a\\\"\"}", response.body() );
+    }
+
+    public void testBadRequests() throws Exception
+    {
+        assertEquals( 400, get( "/convert?from=EUR&to=USD" ).statusCode() );
+        assertEquals( 400, get( "/convert?from=EUR&to=USD&amount=ten" ).statusCode() );
+        assertEquals( 400, get( "/convert?from=EUR&to=XXX&amount=1" ).statusCode() );
+        assertEquals( 400, post( "/convert", "{\"amount\":1}" ).statusCode() );
+    }
+
+    private HttpResponse<String> get( String path ) throws Exception
+    {
+        return client.send( HttpRequest.newBuilder( URI.create( server.getBaseUrl() + path ) ).build(),
+                HttpResponse.BodyHandlers.ofString() );
+    }
+
+    private HttpResponse<String> post( String path, String body ) throws Exception
+    {
+        return client.send( HttpRequest.newBuilder( URI.create( server.getBaseUrl() + path ) )
+                .POST( HttpRequest.BodyPublishers.ofString( body ) ).build(), HttpResponse.BodyHandlers.ofString() );
+    }
+}
@@ -0,0 +1,45 @@
+package currencyApp;
+
+import com.currencyApp.model.CrossRateMatrix;
+import com.currencyApp.model.RateTable;
+import junit.framework.TestCase;
+
+/**
+ * Tests for the cross-rate matrix and its incremental updates.
+ */
+public class CrossRateMatrixTest extends TestCase
+{
+    public void testCrossRatesFromBaseVector()
+    {
+        RateTable table = new RateTable.Builder()
+                .put( "MAD", 1 ).put( "EUR", 0.1 ).put( "USD", 0.11 ).put( "XXX", 0 ).build( "MAD" );
+        CrossRateMatrix matrix = new CrossRateMatrix( table );
+
+        assertEquals( 1.1, matrix.getRate( "EUR", "USD" ), 1e-12 );
+        assertEquals( 10.0, matrix.getRate( "EUR", "MAD" ), 1e-12 );
+        assertEquals( 1.0, matrix.getRate( "USD", "USD" ), 0 );
+        assertTrue( Double.isNaN( matrix.getRate( "XXX", "EUR" ) ) );
+        assertTrue( Double.isNaN( matrix.getRate( "EUR", "XXX" ) ) );
+        assertTrue( Double.isNaN( matrix.getRate( "EUR", "JPY" ) ) );
+    }
+
+    public void testIncrementalUpdateMatchesRebuild()
+    {
+        RateTable table = new RateTable.Builder()
+                .put( "MAD", 1 ).put( "EUR", 0.1 ).put( "USD", 0.11 ).put( "XXX", 0 ).build( "MAD" );
+        CrossRateMatrix matrix = new CrossRateMatrix( table );
+
+        matrix.setBaseRate( table.indexOf( "EUR" ), 0.09 );
+        matrix.setBaseRate( table.indexOf( "XXX" ), 5 );
+        CrossRateMatrix rebuilt = new CrossRateMatrix( matrix.getRateTable() );
+        assertEquals( 0.1, table.getRate( "EUR" ), 0 );
+
+        for ( int from = 0; from < table.size(); from++ )
+        {
+            for ( int to = 0; to < table.size(); to++ )
+            {
+                assertEquals( rebuilt.getRate( from, to ), matrix.getRate( from, to ), 0 );
+            }
+        }
+    }
+}
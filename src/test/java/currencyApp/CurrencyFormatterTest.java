@@ -0,0 +1,47 @@
+package currencyApp;
+
+import com.currencyApp.util.CurrencyFormatter;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+/**
+ * Checks that the fast formatter produces exactly what String.format does.
+ */
+public class CurrencyFormatterTest extends TestCase
+{
+    public void testEdgeCases()
+    {
+        double[] values = { 0.0, -0.0, -0.00004, 0.00005, 1.005, 2.675, 0.125, -0.125, 9.99995, 99999.99995,
+                1e7, 1e15, -1e20, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        for ( double value : values )
+        {
+            assertSame( value );
+        }
+    }
+
+    public void testRandomValuesMatchStringFormat()
+    {
+        Random random = new Random( 20250501 );
+        for ( int i = 0; i < 200000; i++ )
+        {
+            // Spread over magnitudes from 1e-6 to 1e9, with plenty of short decimals that sit on ties
+            double value = Math.pow( 10, random.nextInt( 16 ) - 6 ) * random.nextDouble();
+            if ( i % 2 == 0 )
+            {
+                value = Math.round( value * 100000 ) / 100000.0;
+            }
+            assertSame( random.nextBoolean() ? value : -value );
+        }
+    }
+
+    private static void assertSame( double value )
+    {
+        assertEquals( String.valueOf( value ), String.format( "%.4f", value ), CurrencyFormatter.formatConversionRate( value ) );
+        assertEquals( String.valueOf( value ), String.format( "%.2f%%", value ), CurrencyFormatter.formatPercentageChange( value ) );
+        assertEquals( String.valueOf( value ), String.format( "%.4f%%", value ), CurrencyFormatter.formatChartValue( value ) );
+        assertEquals( String.valueOf( value ), String.format( "%.2f", value ),
+                CurrencyFormatter.appendFixed( new StringBuilder(), value, 2 ).toString() );
+    }
+}
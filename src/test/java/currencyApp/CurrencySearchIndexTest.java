@@ -0,0 +1,89 @@
+package currencyApp;
+
+import com.currencyApp.model.Currency;
+import com.currencyApp.ui.CurrencySearchIndex;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for the combo box type-ahead index.
+ */
+public class CurrencySearchIndexTest extends TestCase
+{
+    private final List<Currency> items = List.of(
+            new Currency( "EUR", "Euro" ),
+            new Currency( "MAD", "Moroccan Dirham" ),
+            new Currency( "SAR", "Saudi Riyal" ),
+            new Currency( "SEK", "Swedish Krona" ),
+            new Currency( "USD", "United States Dollar" ) );
+
+    private final CurrencySearchIndex index = new CurrencySearchIndex( items );
+
+    public void testMatchesNameAndCodeIgnoringCase()
+    {
+        assertEquals( 1, index.findNextMatch( "moro", -1 ) );
+        assertEquals( 4, index.findNextMatch( "usd", -1 ) );
+        assertEquals( 1, index.findNextMatch( "MAD", -1 ) );
+        assertEquals( -1, index.findNextMatch( "X", -1 ) );
+        assertEquals( -1, index.findNextMatch( "", -1 ) );
+    }
+
+    public void testCyclesThroughMatchesInItemOrder()
+    {
+        // "S" matches Saudi Riyal, Swedish Krona and the codes SAR and SEK
+        assertEquals( 2, index.findNextMatch( "S", -1 ) );
+        assertEquals( 3, index.findNextMatch( "S", 2 ) );
+        assertEquals( 2, index.findNextMatch( "S", 3 ) );
+
+        // A previous match that no longer matches starts again at the top
+        assertEquals( 2, index.findNextMatch( "S", 0 ) );
+    }
+
+    public void testAgreesWithAScanOverManyItems()
+    {
+        List<Currency> many = new ArrayList<>();
+        Random random = new Random( 42 );
+        for ( int i = 0; i < 300; i++ )
+        {
+            String code = "" + (char) ( 'A' + random.nextInt( 4 ) ) + (char) ( 'A' + random.nextInt( 4 ) ) + (char) ( 'A' + random.nextInt( 26 ) );
+            many.add( new Currency( code, "N" + code.charAt( 2 ) + i ) );
+        }
+        CurrencySearchIndex manyIndex = new CurrencySearchIndex( many );
+
+        for ( String prefix : List.of( "A", "AB", "ABC", "N", "NQ", "D", "Z" ) )
+        {
+            for ( int last = -1; last < many.size(); last++ )
+            {
+                assertEquals( prefix + " after " + last, scan( many, prefix, last ), manyIndex.findNextMatch( prefix, last ) );
+            }
+        }
+    }
+
+    private static int scan( List<Currency> items, String prefix, int last )
+    {
+        boolean lastMatches = last >= 0 && matches( items.get( last ), prefix );
+        for ( int i = lastMatches ? last + 1 : 0; i < items.size(); i++ )
+        {
+            if ( matches( items.get( i ), prefix ) )
+            {
+                return i;
+            }
+        }
+        for ( int i = 0; i < items.size(); i++ )
+        {
+            if ( matches( items.get( i ), prefix ) )
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches( Currency currency, String prefix )
+    {
+        return currency.getCode().startsWith( prefix ) || currency.getName().toUpperCase().startsWith( prefix );
+    }
+}
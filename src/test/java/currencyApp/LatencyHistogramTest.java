@@ -0,0 +1,63 @@
+package currencyApp;
+
+import com.currencyApp.metrics.EndpointMetrics;
+import com.currencyApp.metrics.LatencyHistogram;
+import junit.framework.TestCase;
+
+import java.util.Map;
+
+/**
+ * Tests the histogram's percentile accuracy and the per-endpoint counters built on it.
+ */
+public class LatencyHistogramTest extends TestCase
+{
+    public void testPercentilesStayWithinBucketPrecision()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for ( int millis = 1; millis <= 1000; millis++ )
+        {
+            histogram.recordNanos( millis * 1_000_000L );
+        }
+
+        assertEquals( 1000, histogram.getCount() );
+        assertEquals( 500, histogram.getPercentileMillis( 50 ), 500 * 0.035 );
+        assertEquals( 990, histogram.getPercentileMillis( 99 ), 990 * 0.035 );
+        assertEquals( 1000.0, histogram.getPercentileMillis( 100 ), 1e-9 );
+        assertEquals( 1000.0, histogram.getMaxMillis(), 1e-9 );
+        assertEquals( 500.5, histogram.getMeanMillis(), 1e-9 );
+    }
+
+    public void testSmallAndHugeValues()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos( 3_000 );
+        histogram.recordNanos( Long.MAX_VALUE );
+
+        assertEquals( 0.003, histogram.getPercentileMillis( 50 ), 1e-9 );
+        assertTrue( histogram.getPercentileMillis( 100 ) > 60 * 60 * 1000 );
+
+        histogram.reset();
+        assertEquals( 0, histogram.getCount() );
+        assertEquals( 0.0, histogram.getPercentileMillis( 99 ) );
+    }
+
+    public void testEndpointMetricsCountErrorsAndCacheHits()
+    {
+        EndpointMetrics metrics = new EndpointMetrics( "/fetch-all" );
+        metrics.recordResponse( 20_000_000, 2_000_000, 4096 );
+        metrics.recordErrorResponse( 429, 5_000_000, 64 );
+        metrics.recordErrorResponse( 429, 5_000_000, 64 );
+        metrics.recordError( "TIMEOUT" );
+        metrics.recordCacheHit();
+        metrics.recordCacheMiss();
+        metrics.recordCacheMiss();
+        metrics.recordCacheMiss();
+
+        assertEquals( 1, metrics.getResponseCount() );
+        assertEquals( 3, metrics.getErrorCount() );
+        assertEquals( Map.of( "429", 2L, "TIMEOUT", 1L ), metrics.getErrorsByStatus() );
+        assertEquals( 4096 + 128, metrics.getBytesReceived() );
+        assertEquals( 0.25, metrics.getCacheHitRatio(), 1e-9 );
+        assertEquals( 2.0, metrics.getDecodeP50Millis(), 2.0 * 0.035 );
+    }
+}
@@ -0,0 +1,70 @@
+package currencyApp;
+
+import com.currencyApp.model.Currency;
+import com.currencyApp.model.RateTable;
+import com.currencyApp.server.MockFastForexServer;
+import junit.framework.TestCase;
+
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests that the mock server speaks the API's JSON and injects the configured faults.
+ */
+public class MockFastForexServerTest extends TestCase
+{
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public void testResponsesDecodeWithTheAppsDecoders() throws Exception
+    {
+        try ( MockFastForexServer server = new MockFastForexServer( new MockFastForexServer.Options().port( 0 ).currencies( 20 ) ).start() )
+        {
+            List<Currency> currencies = Currency.CURRENCY_LIST_DECODER.decode( new StringReader( get( server, "/currencies?api_key=x" ).body() ) );
+            RateTable rates = Currency.RATE_TABLE_DECODER.decode( new StringReader( get( server, "/fetch-all?from=MAD&api_key=x" ).body() ) );
+            Map<String, Map<String, Double>> series = Currency.TIME_SERIES_DECODER.decode( new StringReader(
+                    get( server, "/time-series?from=MAD&to=EUR&start=2025-04-18&end=2025-05-01&api_key=x" ).body() ) );
+
+            assertEquals( 20, currencies.size() );
+            assertEquals( "MAD", rates.getBase() );
+            assertEquals( 1.0, rates.getRate( "MAD" ), 1e-5 );
+            assertTrue( rates.contains( "SAR" ) );
+            assertEquals( 14, series.get( "EUR" ).size() );
+        }
+    }
+
+    public void testSameSeedGivesSameRates() throws Exception
+    {
+        String path = "/historical?date=2025-05-01&from=MAD&api_key=x";
+        try ( MockFastForexServer first = new MockFastForexServer( new MockFastForexServer.Options().port( 0 ) ).start();
+              MockFastForexServer second = new MockFastForexServer( new MockFastForexServer.Options().port( 0 ) ).start() )
+        {
+            assertEquals( get( first, path ).body(), get( second, path ).body() );
+        }
+    }
+
+    public void testInjectsErrorsAndThrottles() throws Exception
+    {
+        try ( MockFastForexServer failing = new MockFastForexServer( new MockFastForexServer.Options().port( 0 ).errorRate( 1 ) ).start();
+              MockFastForexServer throttled = new MockFastForexServer( new MockFastForexServer.Options().port( 0 ).requestsPerSecond( 1 ) ).start() )
+        {
+            assertEquals( 500, get( failing, "/currencies?" ).statusCode() );
+
+            assertEquals( 200, get( throttled, "/currencies?" ).statusCode() );
+            HttpResponse<String> rejected = get( throttled, "/currencies?" );
+            assertEquals( 429, rejected.statusCode() );
+            assertEquals( "1", rejected.headers().firstValue( "Retry-After" ).orElse( null ) );
+            assertEquals( 1, throttled.getThrottledCount() );
+        }
+    }
+
+    private HttpResponse<String> get( MockFastForexServer server, String path ) throws Exception
+    {
+        return client.send( HttpRequest.newBuilder( URI.create( server.getBaseUrl() + path ) ).build(),
+                HttpResponse.BodyHandlers.ofString() );
+    }
+}
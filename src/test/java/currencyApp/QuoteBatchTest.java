@@ -0,0 +1,30 @@
+package currencyApp;
+
+import com.currencyApp.model.PairQuote;
+import com.currencyApp.model.QuoteBatch;
+import junit.framework.TestCase;
+
+/**
+ * Tests for the columnar quote batch.
+ */
+public class QuoteBatchTest extends TestCase
+{
+    public void testChangesAreKeptRaw()
+    {
+        QuoteBatch batch = new QuoteBatch.Builder()
+                .add( "EUR", "MAD", 11f, 10f )
+                .add( "USD", "MAD", 9f, 10f )
+                .build();
+
+        int eur = batch.indexOf( "EUR", "MAD" );
+        assertEquals( 10f, batch.getChangePercent( eur ), 1e-5f );
+        assertTrue( batch.isRising( eur ) );
+
+        PairQuote usd = batch.get( batch.indexOf( "USD", "MAD" ) );
+        assertEquals( 9f, usd.rate(), 0 );
+        assertEquals( -10f, usd.changePercent(), 1e-5f );
+        assertFalse( usd.isRising() );
+
+        assertEquals( -1, batch.indexOf( "MAD", "EUR" ) );
+    }
+}
@@ -0,0 +1,77 @@
+package currencyApp;
+
+import com.currencyApp.model.Currency;
+import com.currencyApp.model.RateHistory;
+import com.currencyApp.model.RateSeries;
+import junit.framework.TestCase;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tests for the columnar rate history store.
+ */
+public class RateHistoryTest extends TestCase
+{
+    public void testPointsStaySortedAndUnique()
+    {
+        RateHistory history = new RateHistory();
+        for ( int day = 100; day < 140; day += 2 )
+        {
+            history.append( "MAD", "EUR", day, day / 1000.0 );
+        }
+        history.append( "MAD", "EUR", 101, 1.0 );     // inserted between two days
+        history.append( "MAD", "EUR", 90, 2.0 );      // before everything
+        history.append( "MAD", "EUR", 110, 3.0 );     // replaces a day
+
+        RateSeries series = history.getSeries( "MAD", "EUR" );
+        assertEquals( 22, series.size() );
+        for ( int i = 1; i < series.size(); i++ )
+        {
+            assertTrue( series.getEpochDay( i - 1 ) < series.getEpochDay( i ) );
+        }
+        assertEquals( 90, series.getEpochDay( 0 ) );
+        assertEquals( 138, history.getLastDay( "MAD", "EUR" ) );
+    }
+
+    public void testRangeIsInclusive()
+    {
+        RateHistory history = new RateHistory();
+        for ( int day = 0; day < 30; day++ )
+        {
+            history.append( "MAD", "USD", day, day );
+        }
+
+        RateSeries range = history.range( "MAD", "USD", 10, 13 );
+        assertEquals( 4, range.size() );
+        assertEquals( 10, range.getEpochDay( 0 ) );
+        assertEquals( 13.0, range.getRate( 3 ), 0 );
+
+        assertTrue( history.range( "MAD", "USD", 40, 50 ).isEmpty() );
+        assertTrue( history.range( "USD", "MAD", 0, 50 ).isEmpty() );
+        assertEquals( Integer.MIN_VALUE, history.getLastDay( "MAD", "CNY" ) );
+    }
+
+    public void testTimeSeriesDecodesIntoSortedColumnsWithGaps() throws Exception
+    {
+        // Out of order, a weekend missing and one unreadable rate
+        String body = "{\"start\":\"2025-04-30\",\"results\":{\"EUR\":{\"2025-05-05\":0.105,\"2025-05-02\":0.102,"
+                + "\"2025-05-01\":\"n/a\",\"2025-04-30\":0.1}},\"base\":\"MAD\"}";
+
+        List<RateSeries> decoded = Currency.RATE_SERIES_DECODER.decode( new StringReader( body ) );
+
+        assertEquals( 1, decoded.size() );
+        RateSeries series = decoded.get( 0 );
+        assertEquals( "MAD", series.getBase() );
+        assertEquals( "EUR", series.getTarget() );
+        assertEquals( 3, series.size() );
+        assertEquals( LocalDate.of( 2025, 4, 30 ), series.getDate( 0 ) );
+        assertEquals( LocalDate.of( 2025, 5, 5 ), series.getDate( 2 ) );
+
+        // Sunday falls back to Friday, and nothing is before the first day
+        assertEquals( 1, series.indexOnOrBefore( (int) LocalDate.of( 2025, 5, 4 ).toEpochDay() ) );
+        assertEquals( 2, series.indexOnOrBefore( (int) LocalDate.of( 2025, 5, 5 ).toEpochDay() ) );
+        assertEquals( -1, series.indexOnOrBefore( (int) LocalDate.of( 2025, 4, 29 ).toEpochDay() ) );
+    }
+}
@@ -0,0 +1,36 @@
+package currencyApp;
+
+import com.currencyApp.model.RateRefreshScheduler;
+import com.currencyApp.model.RateTable;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+/**
+ * Tests for the diff between two rate polls.
+ */
+public class RateRefreshSchedulerTest extends TestCase
+{
+    public void testOnlyChangedRatesAreReported()
+    {
+        RateTable previous = new RateTable.Builder().put( "EUR", 0.1 ).put( "USD", 0.11 ).put( "CNY", 0.78 ).build( "MAD" );
+        RateTable latest = new RateTable.Builder().put( "CNY", 0.79 ).put( "EUR", 0.1 ).put( "USD", 0.111 ).build( "MAD" );
+
+        RateRefreshScheduler.Update update = RateRefreshScheduler.diff( previous, latest );
+
+        assertFalse( update.newCurrencies() );
+        assertEquals( Arrays.asList( "CNY", "USD" ), Arrays.asList( update.changedCodes() ) );
+        assertEquals( 0.111, update.changedRates()[ 1 ], 0 );
+    }
+
+    public void testNewCurrencyAsksForRebuild()
+    {
+        RateTable previous = new RateTable.Builder().put( "EUR", 0.1 ).build( "MAD" );
+        RateTable latest = new RateTable.Builder().put( "EUR", 0.1 ).put( "SAR", 0.4 ).build( "MAD" );
+
+        RateRefreshScheduler.Update update = RateRefreshScheduler.diff( previous, latest );
+
+        assertTrue( update.newCurrencies() );
+        assertEquals( 1, update.size() );
+    }
+}
@@ -0,0 +1,52 @@
+package currencyApp;
+
+import com.currencyApp.model.Currency;
+import com.currencyApp.model.RateHistory;
+import com.currencyApp.model.RateSeries;
+import com.currencyApp.model.RateSnapshot;
+import com.currencyApp.model.RateTable;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Round-trip tests for the on-disk rate snapshot.
+ */
+public class RateSnapshotTest extends TestCase
+{
+    public void testSaveAndLoadRoundTrip() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "fxflip" );
+        Path file = dir.resolve( "rates.snapshot" );
+
+        Currency usd = new Currency( "USD", "United States Dollar" );
+        RateTable rates = new RateTable.Builder().put( "USD", 0.1093 ).build( "MAD" );
+        RateHistory history = new RateHistory();
+        history.append( "MAD", "USD", 20209, 0.108 );
+        history.append( "MAD", "USD", 20210, 0.109 );
+
+        new RateSnapshot( List.of( usd ), rates, history ).save( file );
+        RateSnapshot loaded = RateSnapshot.load( file );
+
+        assertNotNull( loaded );
+        assertTrue( loaded.isUsable() );
+        assertEquals( "United States Dollar", loaded.getCurrencies().get( 0 ).getName() );
+        assertEquals( 0.1093, loaded.getRates().getRate( "USD" ), 0 );
+        assertEquals( "MAD", loaded.getRates().getBase() );
+        RateSeries series = loaded.getHistory().getSeries( "MAD", "USD" );
+        assertEquals( 2, series.size() );
+        assertEquals( 20210, series.getEpochDay( 1 ) );
+        assertEquals( 0.109, series.getRate( 1 ), 0 );
+    }
+
+    public void testMissingOrCorruptFileLoadsAsNull() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "fxflip" );
+        assertNull( RateSnapshot.load( dir.resolve( "missing.snapshot" ) ) );
+
+        Path corrupt = Files.write( dir.resolve( "corrupt.snapshot" ), new byte[] { 1, 2, 3 } );
+        assertNull( RateSnapshot.load( corrupt ) );
+    }
+}
@@ -0,0 +1,38 @@
+package currencyApp;
+
+import com.currencyApp.model.RateTable;
+import junit.framework.TestCase;
+
+/**
+ * Tests for the id-indexed rate table.
+ */
+public class RateTableTest extends TestCase
+{
+    public void testLookupByCodeAndId()
+    {
+        RateTable.Builder builder = new RateTable.Builder();
+        for ( int i = 0; i < 200; i++ )
+        {
+            builder.put( "C" + i, i / 10.0 );
+        }
+        RateTable table = builder.build( "MAD" );
+
+        assertEquals( 200, table.size() );
+        for ( int i = 0; i < 200; i++ )
+        {
+            int id = table.indexOf( "C" + i );
+            assertEquals( "C" + i, table.getCode( id ) );
+            assertEquals( i / 10.0, table.getRate( id ), 0 );
+        }
+        assertEquals( -1, table.indexOf( "XXX" ) );
+        assertTrue( Double.isNaN( table.getRate( "XXX" ) ) );
+    }
+
+    public void testDuplicateKeepsLastRate()
+    {
+        RateTable table = new RateTable.Builder().put( "USD", 1 ).put( "USD", 2 ).build( "MAD" );
+
+        assertEquals( 1, table.size() );
+        assertEquals( 2.0, table.getRate( "USD" ), 0 );
+    }
+}
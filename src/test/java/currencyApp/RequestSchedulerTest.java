@@ -0,0 +1,82 @@
+package currencyApp;
+
+import com.currencyApp.util.RequestScheduler;
+import com.currencyApp.util.RequestScheduler.Priority;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the priority order and metrics of the request scheduler.
+ */
+public class RequestSchedulerTest extends TestCase
+{
+    public void testInteractiveCallsOvertakeBackgroundCalls() throws Exception
+    {
+        RequestScheduler scheduler = new RequestScheduler( 1000, 100, 1 );
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Holds the only slot until the other calls are queued
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        CompletableFuture<String> first = scheduler.submit( Priority.NORMAL, () -> blocker );
+        while ( scheduler.getStartedCount( Priority.NORMAL ) == 0 )
+        {
+            Thread.sleep( 1 );
+        }
+
+        CompletableFuture<String> background = scheduler.submit( Priority.BACKGROUND, () -> record( order, "background" ) );
+        CompletableFuture<String> interactive = scheduler.submit( Priority.INTERACTIVE, () -> record( order, "interactive" ) );
+        assertEquals( 2, scheduler.getQueueDepth() );
+        assertEquals( 1, scheduler.getQueueDepth( Priority.BACKGROUND ) );
+
+        blocker.complete( "first" );
+
+        assertEquals( "first", first.get( 5, TimeUnit.SECONDS ) );
+        assertEquals( "background", background.get( 5, TimeUnit.SECONDS ) );
+        assertEquals( "interactive", interactive.get( 5, TimeUnit.SECONDS ) );
+        assertEquals( List.of( "interactive", "background" ), order );
+        assertEquals( 0, scheduler.getQueueDepth() );
+        assertTrue( scheduler.getMaxWaitMillis( Priority.BACKGROUND ) >= scheduler.getMaxWaitMillis( Priority.INTERACTIVE ) );
+    }
+
+    public void testFailedCallReleasesItsSlot() throws Exception
+    {
+        RequestScheduler scheduler = new RequestScheduler( 1000, 100, 1 );
+
+        CompletableFuture<String> failed = scheduler.submit( Priority.NORMAL, () -> {
+            throw new IllegalStateException( "boom" );
+        } );
+        CompletableFuture<String> next = scheduler.submit( Priority.NORMAL, () -> CompletableFuture.completedFuture( "ok" ) );
+
+        assertEquals( "ok", next.get( 5, TimeUnit.SECONDS ) );
+        assertTrue( failed.isCompletedExceptionally() );
+    }
+
+    public void testPauseAndQuotaHoldBackTheNextCall() throws Exception
+    {
+        RequestScheduler scheduler = new RequestScheduler( 5, 5, 1 );
+        Thread.sleep( 50 ); // dispatcher is idle, waiting for work
+
+        scheduler.pauseFor( 300 );
+        long submitted = System.nanoTime();
+        long started = scheduler.submit( Priority.INTERACTIVE, () -> CompletableFuture.completedFuture( System.nanoTime() ) )
+                .get( 5, TimeUnit.SECONDS );
+        assertTrue( started - submitted >= TimeUnit.MILLISECONDS.toNanos( 250 ) );
+
+        Thread.sleep( 50 );
+        scheduler.limitTokens( 0 );
+        submitted = System.nanoTime();
+        started = scheduler.submit( Priority.INTERACTIVE, () -> CompletableFuture.completedFuture( System.nanoTime() ) )
+                .get( 5, TimeUnit.SECONDS );
+        assertTrue( started - submitted >= TimeUnit.MILLISECONDS.toNanos( 150 ) );
+    }
+
+    private static CompletableFuture<String> record( List<String> order, String name )
+    {
+        order.add( name );
+        return CompletableFuture.completedFuture( name );
+    }
+}
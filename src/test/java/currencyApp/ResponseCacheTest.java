@@ -0,0 +1,69 @@
+package currencyApp;
+
+import com.currencyApp.model.ResponseCache;
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for the bounded API response cache.
+ */
+public class ResponseCacheTest extends TestCase
+{
+    public void testHitAndMissAreCounted()
+    {
+        ResponseCache<String, String> cache = new ResponseCache<>( 10, 1000 );
+        cache.put( "/currencies?", "{}", 4, ResponseCache.FOREVER );
+
+        assertEquals( "{}", cache.get( "/currencies?" ) );
+        assertNull( cache.get( "/fetch-all?from=MAD&" ) );
+        assertEquals( 1, cache.getHitCount() );
+        assertEquals( 1, cache.getMissCount() );
+        assertEquals( 0.5, cache.getHitRatio(), 1e-9 );
+    }
+
+    public void testLeastRecentlyUsedEntryIsEvictedWhenFull()
+    {
+        ResponseCache<String, String> cache = new ResponseCache<>( 2, 1000 );
+        cache.put( "a", "1", 1, ResponseCache.FOREVER );
+        cache.put( "b", "2", 1, ResponseCache.FOREVER );
+        cache.get( "a" ); // "b" is now the least recently used
+        cache.put( "c", "3", 1, ResponseCache.FOREVER );
+
+        assertEquals( "1", cache.get( "a" ) );
+        assertNull( cache.get( "b" ) );
+        assertEquals( "3", cache.get( "c" ) );
+        assertEquals( 1, cache.getEvictionCount() );
+    }
+
+    public void testByteBoundEvictsUntilUnderLimit()
+    {
+        ResponseCache<String, String> cache = new ResponseCache<>( 100, 10 );
+        cache.put( "a", "1", 4, ResponseCache.FOREVER );
+        cache.put( "b", "2", 4, ResponseCache.FOREVER );
+        cache.put( "c", "3", 4, ResponseCache.FOREVER );
+
+        assertEquals( 2, cache.size() );
+        assertEquals( 8, cache.sizeInBytes() );
+        assertNull( cache.get( "a" ) );
+    }
+
+    public void testExpiredEntryIsNotReturned() throws InterruptedException
+    {
+        ResponseCache<String, String> cache = new ResponseCache<>( 10, 1000 );
+        cache.put( "/fetch-all?from=MAD&", "{}", 2, 1 );
+        Thread.sleep( 5 );
+
+        assertNull( cache.get( "/fetch-all?from=MAD&" ) );
+        assertEquals( 0, cache.size() );
+    }
+
+    public void testExpiredEntryIsServedStaleWithinGracePeriod() throws InterruptedException
+    {
+        ResponseCache<String, String> cache = new ResponseCache<>( 10, 1000, 60_000 );
+        cache.put( "/fetch-all?from=MAD&", "{}", 2, 1 );
+        Thread.sleep( 5 );
+
+        assertNull( cache.get( "/fetch-all?from=MAD&" ) );
+        assertEquals( "{}", cache.getStale( "/fetch-all?from=MAD&" ) );
+        assertNull( new ResponseCache<String, String>( 10, 1000 ).getStale( "/fetch-all?from=MAD&" ) );
+    }
+}
@@ -0,0 +1,95 @@
+package currencyApp;
+
+import com.currencyApp.model.RateSeries;
+import com.currencyApp.ui.StatisticPreview;
+import javafx.scene.chart.XYChart;
+import junit.framework.TestCase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the in-place point update behind the statistics chart; no stage or FX thread is needed.
+ */
+public class StatisticPreviewTest extends TestCase
+{
+    private static final int MAY_1 = (int) LocalDate.of( 2025, 5, 1 ).toEpochDay();
+
+    private final List<XYChart.Data<String, Number>> points = new ArrayList<>();
+
+    public void testFirstFill()
+    {
+        assertEquals( 0, StatisticPreview.updatePercentagePoints( points, series( MAY_1, 0.1, 0.11, 0.09 ) ) );
+
+        assertEquals( 3, points.size() );
+        assertEquals( "01-05", points.get( 0 ).getXValue() );
+        assertEquals( "03-05", points.get( 2 ).getXValue() );
+        assertEquals( 0.0, points.get( 0 ).getYValue().doubleValue(), 1e-9 );
+        assertEquals( 10.0, points.get( 1 ).getYValue().doubleValue(), 1e-9 );
+        assertEquals( -10.0, points.get( 2 ).getYValue().doubleValue(), 1e-9 );
+    }
+
+    public void testAppendOnlyKeepsTheExistingPoints()
+    {
+        StatisticPreview.updatePercentagePoints( points, series( MAY_1, 0.1, 0.11 ) );
+        List<XYChart.Data<String, Number>> before = new ArrayList<>( points );
+
+        assertEquals( 2, StatisticPreview.updatePercentagePoints( points, series( MAY_1, 0.1, 0.11, 0.12 ) ) );
+
+        assertEquals( 3, points.size() );
+        assertSame( before.get( 0 ), points.get( 0 ) );
+        assertSame( before.get( 1 ), points.get( 1 ) );
+        assertEquals( "03-05", points.get( 2 ).getXValue() );
+        assertEquals( 20.0, points.get( 2 ).getYValue().doubleValue(), 1e-9 );
+    }
+
+    public void testShrinkDropsTheSurplus()
+    {
+        StatisticPreview.updatePercentagePoints( points, series( MAY_1, 0.1, 0.11, 0.12, 0.13 ) );
+        XYChart.Data<String, Number> first = points.get( 0 );
+
+        assertEquals( 2, StatisticPreview.updatePercentagePoints( points, series( MAY_1, 0.1, 0.11 ) ) );
+
+        assertEquals( 2, points.size() );
+        assertSame( first, points.get( 0 ) );
+        assertEquals( "02-05", points.get( 1 ).getXValue() );
+    }
+
+    public void testReplaceReusesThePoints()
+    {
+        StatisticPreview.updatePercentagePoints( points, series( MAY_1, 0.1, 0.11, 0.12 ) );
+        List<XYChart.Data<String, Number>> before = new ArrayList<>( points );
+
+        // The window moved on by a day: every value changes, no point is added or removed
+        assertEquals( 3, StatisticPreview.updatePercentagePoints( points, series( MAY_1 + 1, 0.11, 0.12, 0.121 ) ) );
+
+        assertEquals( before, points );
+        for ( int i = 0; i < points.size(); i++ )
+        {
+            assertSame( before.get( i ), points.get( i ) );
+        }
+        assertEquals( "02-05", points.get( 0 ).getXValue() );
+        assertEquals( "04-05", points.get( 2 ).getXValue() );
+        assertEquals( 10.0, points.get( 2 ).getYValue().doubleValue(), 1e-9 );
+    }
+
+    public void testNoUsableBaselineEmptiesThePoints()
+    {
+        StatisticPreview.updatePercentagePoints( points, series( MAY_1, 0.1, 0.11 ) );
+
+        assertEquals( -1, StatisticPreview.updatePercentagePoints( points, series( MAY_1, 0, Double.NaN ) ) );
+        assertTrue( points.isEmpty() );
+        assertEquals( -1, StatisticPreview.updatePercentagePoints( points, series( MAY_1 ) ) );
+    }
+
+    private static RateSeries series( int firstDay, double... rates )
+    {
+        int[] days = new int[ rates.length ];
+        for ( int i = 0; i < days.length; i++ )
+        {
+            days[ i ] = firstDay + i;
+        }
+        return new RateSeries( "MAD", "EUR", days, rates );
+    }
+}